@@ -0,0 +1,9 @@
+package ru.practicum.shareit.api;
+
+public final class ApiHeaders {
+    public static final String USER_ID = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private ApiHeaders() {
+    }
+}
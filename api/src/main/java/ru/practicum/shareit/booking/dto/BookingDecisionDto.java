@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDto {
+    @NotNull(message = "ID бронирования не может быть null")
+    private Long bookingId;
+
+    @NotNull(message = "Решение approved не может быть null")
+    private Boolean approved;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.BookingStatus;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private Outcome outcome;
+    private BookingStatus status;
+
+    public enum Outcome {
+        APPLIED,
+        NOT_FOUND,
+        FORBIDDEN,
+        ALREADY_PROCESSED
+    }
+}
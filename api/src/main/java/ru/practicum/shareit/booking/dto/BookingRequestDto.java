@@ -25,4 +25,4 @@ public class BookingRequestDto {
 
     @NotNull(message = "ID вещи не может быть null")
     private Long itemId;
-}
\ No newline at end of file
+}
@@ -1,4 +1,4 @@
-package ru.practicum.shareit.item.comment;
+package ru.practicum.shareit.item.comment.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
@@ -10,4 +10,4 @@ import lombok.*;
 public class CommentRequestDto {
     @NotBlank(message = "Текст комментария не может быть пустым")
     private String text;
-}
\ No newline at end of file
+}
@@ -25,6 +25,7 @@ public class ItemDto {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.ALWAYS)
     public static class BookingInfo {
         private Long id;
         private Long bookerId;
@@ -19,4 +19,4 @@ public class ItemRequestDto {
     private Boolean available;
 
     private Long requestId;
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStatsDto {
+    private Long itemId;
+    private long bookings;
+    private long approvedBookings;
+    private long rejectedBookings;
+    private double occupancyRate;
+    private Double averageLeadTimeHours;
+    private double bookingsPerMonth;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime firstBookingStart;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastBookingEnd;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarItemDto {
+    private Long itemId;
+    private double score;
+    // Сколько пользователей бронировали обе вещи
+    private int coBookings;
+}
@@ -1,4 +1,4 @@
-package ru.practicum.shareit.item.dto;
+package ru.practicum.shareit.request.dto;
 
 import lombok.*;
 
@@ -6,9 +6,10 @@ import lombok.*;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class ItemRequestDto {
+public class ItemMatchDto {
+    private Long itemId;
     private String name;
     private String description;
     private Boolean available;
-    private Long requestId;
-}
\ No newline at end of file
+    private double score;
+}
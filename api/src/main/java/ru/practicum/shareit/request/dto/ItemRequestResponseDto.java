@@ -17,4 +17,6 @@ public class ItemRequestResponseDto {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime created;
     private List<ItemDto> items;
+    // Подобранные при создании вещи; заполняется при создании и при получении запроса по id
+    private List<ItemMatchDto> matches;
 }
\ No newline at end of file
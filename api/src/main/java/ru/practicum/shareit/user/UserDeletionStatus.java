@@ -0,0 +1,7 @@
+package ru.practicum.shareit.user;
+
+public enum UserDeletionStatus {
+    PENDING,
+    IN_PROGRESS,
+    COMPLETED
+}
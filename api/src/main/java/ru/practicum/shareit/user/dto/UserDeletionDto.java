@@ -0,0 +1,33 @@
+package ru.practicum.shareit.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+import ru.practicum.shareit.user.UserDeletionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ход очистки данных удалённого пользователя: текущий этап и число уже удалённых записей.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletionDto {
+    private Long userId;
+    private UserDeletionStatus status;
+    private String step;
+    private long deletedBookings;
+    private long deletedComments;
+    private long deletedItems;
+    private long deletedRequests;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime requestedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime completedAt;
+}
@@ -17,4 +17,4 @@ public class UserDto {
 
     @NotBlank(message = "Имя не может быть пустым")
     private String name;
-}
\ No newline at end of file
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сравнение JSON и Smile на участке шлюз — сервер для списков бронирований и вещей.
+ * В режиме JSON сервер сериализует ответ в JSON, а шлюз передает байты как есть; в режиме Smile
+ * сервер пишет Smile, а шлюз потоково перекодирует его в JSON так же, как BaseClient.smileToJson.
+ * Размеры ответов, в том числе после gzip, печатаются перед измерениями каждого набора параметров.
+ * <p>
+ * Запуск: {@code mvn -Pbenchmarks -pl benchmarks -am package -DskipTests}, затем
+ * {@code java -jar benchmarks/target/benchmarks.jar WireFormatBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Param({"BOOKINGS", "ITEMS"})
+    private Payload payload;
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private final ObjectMapper jsonMapper = JsonMapper.builder().findAndAddModules().build();
+    private final ObjectMapper smileMapper = SmileMapper.builder().findAndAddModules().build();
+
+    private List<?> dtos;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() throws IOException {
+        dtos = payload.generate(size);
+        byte[] json = jsonMapper.writeValueAsBytes(dtos);
+        smile = smileMapper.writeValueAsBytes(dtos);
+        System.out.printf("%n%s x %d: JSON %d байт (gzip %d), Smile %d байт (gzip %d)%n",
+                payload, size, json.length, gzipped(json), smile.length, gzipped(smile));
+    }
+
+    @Benchmark
+    public byte[] serverWritesJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serverWritesSmile() throws IOException {
+        return smileMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] gatewayTranscodesSmile() throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(smile.length * 2);
+        try (JsonParser parser = smileMapper.getFactory().createParser(smile);
+             JsonGenerator generator = jsonMapper.getFactory().createGenerator(json)) {
+            if (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        }
+        return json.toByteArray();
+    }
+
+    private static int gzipped(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    public enum Payload {
+        BOOKINGS(WireFormatBenchmark::booking),
+        ITEMS(WireFormatBenchmark::item);
+
+        private final IntFunction<Object> factory;
+
+        Payload(IntFunction<Object> factory) {
+            this.factory = factory;
+        }
+
+        List<Object> generate(int size) {
+            List<Object> dtos = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                dtos.add(factory.apply(i));
+            }
+            return dtos;
+        }
+    }
+
+    private static BookingDto booking(int id) {
+        Random random = new Random(id);
+        LocalDateTime start = NOW.plusHours(random.nextInt(24 * 90));
+        return BookingDto.builder()
+                .id((long) id)
+                .start(start)
+                .end(start.plusDays(1 + random.nextInt(7)))
+                .status(BookingStatus.values()[random.nextInt(BookingStatus.values().length)])
+                .item(new BookingDto.ItemResponse(1L + random.nextInt(5_000), "Дрель ударная " + random.nextInt(100)))
+                .booker(new BookingDto.BookerResponse(1L + random.nextInt(10_000), "Пользователь " + id))
+                .build();
+    }
+
+    private static ItemDto item(int id) {
+        Random random = new Random(id);
+        List<CommentDto> comments = new ArrayList<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            comments.add(new CommentDto((long) id * 10 + i, "Всё работает, вернул вовремя, рекомендую",
+                    "Пользователь " + random.nextInt(10_000), NOW.minusDays(random.nextInt(365))));
+        }
+        return ItemDto.builder()
+                .id((long) id)
+                .name("Дрель ударная " + id)
+                .description("Мощность 800 Вт, два аккумулятора, кейс и набор сверл в комплекте")
+                .available(random.nextBoolean())
+                .ownerId(1L + random.nextInt(10_000))
+                .requestId(random.nextInt(4) == 0 ? 1L + random.nextInt(1_000) : null)
+                .lastBooking(new ItemDto.BookingInfo(1L + random.nextInt(100_000), 1L + random.nextInt(10_000)))
+                .nextBooking(random.nextBoolean()
+                        ? new ItemDto.BookingInfo(1L + random.nextInt(100_000), 1L + random.nextInt(10_000)) : null)
+                .comments(comments)
+                .build();
+    }
+}
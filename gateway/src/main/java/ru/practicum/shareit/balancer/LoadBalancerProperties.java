@@ -0,0 +1,23 @@
+package ru.practicum.shareit.balancer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.server.balancer")
+public class LoadBalancerProperties {
+    /**
+     * Адреса экземпляров сервера; если список пуст, используется shareit.server.url.
+     */
+    private List<String> urls = new ArrayList<>();
+    private int failureThreshold = 3;
+    private Duration ejectionTime = Duration.ofSeconds(10);
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private String healthCheckPath = "/actuator/health";
+}
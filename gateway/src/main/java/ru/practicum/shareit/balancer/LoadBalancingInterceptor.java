@@ -0,0 +1,82 @@
+package ru.practicum.shareit.balancer;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+
+/**
+ * Запросы к логическому адресу shareit.server.url перенаправляются на выбранный
+ * экземпляр сервера. Каждый повтор и хеджированный запрос проходит через перехватчик
+ * заново и может попасть на другой узел.
+ */
+public class LoadBalancingInterceptor implements ClientHttpRequestInterceptor {
+    private final URI logicalUri;
+    private final ServerLoadBalancer balancer;
+
+    public LoadBalancingInterceptor(URI logicalUri, ServerLoadBalancer balancer) {
+        this.logicalUri = logicalUri;
+        this.balancer = balancer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        URI original = request.getURI();
+        if (!isLogical(original)) {
+            return execution.execute(request, body);
+        }
+
+        ServerEndpoint endpoint = balancer.choose();
+        URI target = UriComponentsBuilder.fromUri(original)
+                .scheme(endpoint.getUri().getScheme())
+                .host(endpoint.getUri().getHost())
+                .port(endpoint.getUri().getPort())
+                .build(true)
+                .toUri();
+
+        balancer.begin(endpoint);
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(new HttpRequestWrapper(request) {
+                @Override
+                public URI getURI() {
+                    return target;
+                }
+            }, body);
+        } catch (ConnectException e) {
+            balancer.onFailure(endpoint, true);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            balancer.onFailure(endpoint, false);
+            throw e;
+        }
+
+        if (isUnavailable(response.getStatusCode())) {
+            balancer.onFailure(endpoint, false);
+        } else {
+            balancer.onSuccess(endpoint);
+        }
+        return response;
+    }
+
+    private boolean isLogical(URI uri) {
+        return logicalUri.getHost().equalsIgnoreCase(uri.getHost())
+                && logicalUri.getPort() == uri.getPort()
+                && logicalUri.getScheme().equalsIgnoreCase(uri.getScheme());
+    }
+
+    private static boolean isUnavailable(HttpStatusCode status) {
+        return status.isSameCodeAs(HttpStatus.BAD_GATEWAY)
+                || status.isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)
+                || status.isSameCodeAs(HttpStatus.GATEWAY_TIMEOUT);
+    }
+}
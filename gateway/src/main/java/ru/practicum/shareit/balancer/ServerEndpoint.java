@@ -0,0 +1,60 @@
+package ru.practicum.shareit.balancer;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServerEndpoint {
+    private final URI uri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long ejectedUntilNanos;
+
+    public ServerEndpoint(URI uri) {
+        this.uri = uri;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isAvailable(long nowNanos) {
+        return nowNanos - ejectedUntilNanos >= 0;
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    void end() {
+        outstanding.decrementAndGet();
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * @return true, если после этой ошибки узел исключен из балансировки
+     */
+    boolean recordFailure(int threshold, long ejectionNanos) {
+        if (consecutiveFailures.incrementAndGet() >= threshold) {
+            consecutiveFailures.set(0);
+            eject(ejectionNanos);
+            return true;
+        }
+        return false;
+    }
+
+    void eject(long ejectionNanos) {
+        ejectedUntilNanos = System.nanoTime() + ejectionNanos;
+    }
+
+    void restore() {
+        consecutiveFailures.set(0);
+        ejectedUntilNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.balancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+@Slf4j
+public class ServerHealthChecker {
+    private final ServerLoadBalancer balancer;
+    private final RestTemplate restTemplate;
+    private final String healthCheckPath;
+
+    public ServerHealthChecker(ServerLoadBalancer balancer, RestTemplate restTemplate, String healthCheckPath) {
+        this.balancer = balancer;
+        this.restTemplate = restTemplate;
+        this.healthCheckPath = healthCheckPath;
+    }
+
+    public void check() {
+        for (ServerEndpoint endpoint : balancer.getEndpoints()) {
+            boolean healthy;
+            try {
+                healthy = restTemplate.getForEntity(endpoint.getUri().resolve(healthCheckPath), String.class)
+                        .getStatusCode().is2xxSuccessful();
+            } catch (RestClientException e) {
+                log.debug("Проверка состояния сервера {} завершилась ошибкой: {}", endpoint.getUri(), e.getMessage());
+                healthy = false;
+            }
+            balancer.onHealthCheck(endpoint, healthy);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.balancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Выбор экземпляра сервера методом «двух случайных»: из двух случайно выбранных
+ * доступных узлов берется тот, у которого меньше незавершенных запросов.
+ * Узел, подряд вернувший failureThreshold ошибок, исключается на ejectionTime.
+ */
+@Slf4j
+public class ServerLoadBalancer {
+    private final List<ServerEndpoint> endpoints;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final Map<ServerEndpoint, Counter> successes = new HashMap<>();
+    private final Map<ServerEndpoint, Counter> failures = new HashMap<>();
+    private final Counter ejections;
+
+    public ServerLoadBalancer(List<String> urls, LoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        this.failureThreshold = properties.getFailureThreshold();
+        this.ejectionNanos = properties.getEjectionTime().toNanos();
+        this.endpoints = urls.stream()
+                .map(url -> new ServerEndpoint(URI.create(url)))
+                .toList();
+        for (ServerEndpoint endpoint : endpoints) {
+            String tag = endpoint.getUri().toString();
+            Gauge.builder("shareit.gateway.upstream.endpoint.outstanding", endpoint, ServerEndpoint::getOutstanding)
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.gateway.upstream.endpoint.available", endpoint,
+                            e -> e.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            successes.put(endpoint, requests(meterRegistry, tag, "success"));
+            failures.put(endpoint, requests(meterRegistry, tag, "failure"));
+        }
+        this.ejections = Counter.builder("shareit.gateway.upstream.endpoint.ejections")
+                .register(meterRegistry);
+    }
+
+    public List<ServerEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public ServerEndpoint choose() {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+        long now = System.nanoTime();
+        List<ServerEndpoint> available = new ArrayList<>(endpoints.size());
+        for (ServerEndpoint endpoint : endpoints) {
+            if (endpoint.isAvailable(now)) {
+                available.add(endpoint);
+            }
+        }
+        // Если исключены все узлы, нагрузка распределяется по всем: отказ всего кластера хуже
+        List<ServerEndpoint> candidates = available.isEmpty() ? endpoints : available;
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerEndpoint a = candidates.get(first);
+        ServerEndpoint b = candidates.get(second);
+        return a.getOutstanding() <= b.getOutstanding() ? a : b;
+    }
+
+    public void begin(ServerEndpoint endpoint) {
+        endpoint.begin();
+    }
+
+    public void onSuccess(ServerEndpoint endpoint) {
+        endpoint.end();
+        endpoint.recordSuccess();
+        successes.get(endpoint).increment();
+    }
+
+    /**
+     * Долгоживущий поток открыт: узел исправен, но место в outstanding остается занятым,
+     * пока поток не будет закрыт вызовом {@link #end}.
+     */
+    public void onStreamOpened(ServerEndpoint endpoint) {
+        endpoint.recordSuccess();
+        successes.get(endpoint).increment();
+    }
+
+    public void end(ServerEndpoint endpoint) {
+        endpoint.end();
+    }
+
+    /**
+     * @param refused соединение не установлено: узел исключается сразу, не дожидаясь порога ошибок
+     */
+    public void onFailure(ServerEndpoint endpoint, boolean refused) {
+        endpoint.end();
+        failures.get(endpoint).increment();
+        // Уже исключенный узел получает запросы только когда исключены все, повторно его не исключаем
+        if (endpoints.size() > 1 && endpoint.isAvailable(System.nanoTime())
+                && endpoint.recordFailure(refused ? 1 : failureThreshold, ejectionNanos)) {
+            ejections.increment();
+            log.warn("Сервер {} исключен из балансировки: {}", endpoint.getUri(),
+                    refused ? "соединение отклонено" : failureThreshold + " ошибок подряд");
+        }
+    }
+
+    public void onHealthCheck(ServerEndpoint endpoint, boolean healthy) {
+        boolean available = endpoint.isAvailable(System.nanoTime());
+        if (healthy && !available) {
+            endpoint.restore();
+            log.info("Сервер {} снова доступен", endpoint.getUri());
+        } else if (!healthy && available && endpoints.size() > 1) {
+            endpoint.eject(ejectionNanos);
+            ejections.increment();
+            log.warn("Сервер {} не прошел проверку состояния и исключен из балансировки", endpoint.getUri());
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String endpoint, String outcome) {
+        return Counter.builder("shareit.gateway.upstream.endpoint.requests")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD-ограничитель числа одновременных запросов к серверу. Каждый быстрый ответ
+ * увеличивает лимит примерно на единицу за «окно» из limit запросов, медленный ответ
+ * или ошибка соединения умножают его на backoffRatio.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final ConcurrencyLimitProperties.Limit settings;
+    private final long thresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private double limit;
+    private volatile int currentLimit;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties.Limit settings) {
+        this.settings = settings;
+        this.thresholdNanos = settings.getLatencyThreshold().toNanos();
+        this.limit = settings.getInitialLimit();
+        this.currentLimit = settings.getInitialLimit();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > thresholdNanos) {
+            decrease();
+        } else {
+            increase();
+        }
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    // Ответ, не говорящий о загрузке сервера (например, отмена запроса), лимит не меняет
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void increase() {
+        // Лимит растет только пока он действительно используется, иначе он уйдет вверх на простое
+        if (inFlight.get() * 2 < currentLimit) {
+            return;
+        }
+        limit = Math.min(settings.getMaxLimit(), limit + 1.0 / limit);
+        currentLimit = (int) limit;
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+        currentLimit = (int) limit;
+    }
+}
@@ -1,21 +1,51 @@
 package ru.practicum.shareit.client;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "proxy-authenticate", "proxy-authorization", "content-length");
+
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+
+    private static final byte[] OVERLOADED_BODY =
+            "{\"error\":\"Сервер перегружен, повторите запрос позже\"}".getBytes(StandardCharsets.UTF_8);
+
     protected final RestTemplate rest;
     private final ObjectMapper objectMapper;
+    private final WireFormat wireFormat;
+    private final ConcurrencyLimiters limiters;
+    private final UpstreamResilience resilience;
 
-    public BaseClient(RestTemplate rest, ObjectMapper objectMapper) {
+    public BaseClient(RestTemplate rest, ObjectMapper objectMapper, WireFormat wireFormat,
+                      ConcurrencyLimiters limiters, UpstreamResilience resilience) {
         this.rest = rest;
         this.objectMapper = objectMapper;
+        this.wireFormat = wireFormat;
+        this.limiters = limiters;
+        this.resilience = resilience;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -68,59 +98,147 @@ public class BaseClient {
 
     private ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
                                                       @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        // Заголовки собираются в потоке запроса: хеджированные попытки выполняются в других потоках
         HttpEntity<Object> requestEntity = new HttpEntity<>(body, createHeaders(userId));
+        Supplier<ResponseEntity<Object>> call = () -> exchange(method, path, requestEntity, parameters);
+
+        if (!limiters.isEnabled()) {
+            try {
+                return resilience.execute(method, call, null);
+            } catch (ResourceAccessException e) {
+                if (isPoolExhausted(e)) {
+                    return overloaded();
+                }
+                throw e;
+            }
+        }
+
+        Bulkhead bulkhead = Bulkhead.of(method);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(bulkhead);
+        if (!limiter.tryAcquire()) {
+            limiters.recordShed(bulkhead);
+            return overloaded();
+        }
+
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<Object> response = resilience.execute(method, call, limiter);
+            HttpStatusCode status = response.getStatusCode();
+            if (status.isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE) || status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(System.nanoTime() - start);
+            }
+            return response;
+        } catch (ResourceAccessException e) {
+            if (isPoolExhausted(e)) {
+                // Запрос не ушел на сервер, поэтому ожидание соединения не влияет на лимит
+                limiter.onIgnored();
+                limiters.recordShed(bulkhead);
+                return overloaded();
+            }
+            limiter.onDropped();
+            throw e;
+        } catch (RuntimeException e) {
+            limiter.onIgnored();
+            throw e;
+        }
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private ResponseEntity<Object> exchange(HttpMethod method, String path, HttpEntity<Object> requestEntity,
+                                            @Nullable Map<String, Object> parameters) {
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null && !parameters.isEmpty()) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray()));
         }
 
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    // Запрос сверх лимита сразу получает 503, не занимая поток в ожидании ответа сервера
+    private static ResponseEntity<Object> overloaded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(OVERLOADED_BODY);
+    }
+
+    private static boolean isPoolExhausted(ResourceAccessException e) {
+        return e.getCause() instanceof ConnectionRequestTimeoutException;
+    }
+
     private HttpHeaders createHeaders(@Nullable Long userId) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setContentType(wireFormat.getMediaType());
+        headers.setAccept(List.of(wireFormat.getMediaType(), MediaType.APPLICATION_JSON));
+        if (wireFormat == WireFormat.JSON) {
+            String acceptEncoding = currentAcceptEncoding();
+            if (acceptEncoding != null) {
+                headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+            }
+        }
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
         return headers;
     }
 
-    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            Object body = response.getBody();
-            if (body != null) {
-                try {
-                    String json = objectMapper.writeValueAsString(body);
-                    Object processedBody = objectMapper.readValue(json, Object.class);
-                    return ResponseEntity.status(response.getStatusCode())
-                            .headers(response.getHeaders())
-                            .body(processedBody);
-                } catch (Exception e) {
-                    return ResponseEntity.status(response.getStatusCode())
-                            .headers(response.getHeaders())
-                            .body(body);
-                }
-            }
-            return ResponseEntity.status(response.getStatusCode())
-                    .headers(response.getHeaders())
-                    .body(body);
+    // Сжатие согласуется с клиентом шлюза: сервер сжимает ответ, а шлюз передаёт байты как есть
+    @Nullable
+    private String currentAcceptEncoding() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING);
         }
+        return null;
+    }
 
+    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = relayedHeaders(response.getHeaders());
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
 
         if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+            byte[] body = response.getBody();
+            if (WireFormat.SMILE.getMediaType().isCompatibleWith(headers.getContentType())) {
+                body = smileToJson(body);
+                headers.setContentType(MediaType.APPLICATION_JSON);
+            }
+            return responseBuilder.headers(headers).body(body);
         }
 
-        return responseBuilder.build();
+        return responseBuilder.headers(headers).build();
+    }
+
+    // Потоковое перекодирование Smile -> JSON без построения дерева объектов
+    private byte[] smileToJson(byte[] smile) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(smile.length * 2);
+        try (JsonParser parser = SMILE_FACTORY.createParser(smile);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            if (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось перекодировать ответ сервера", e);
+        }
+        return json.toByteArray();
+    }
+
+    private HttpHeaders relayedHeaders(@Nullable HttpHeaders upstreamHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (upstreamHeaders != null) {
+            upstreamHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.addAll(name, values);
+                }
+            });
+        }
+        return headers;
     }
 }
\ No newline at end of file
@@ -7,9 +7,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class BookingClient extends BaseClient {
@@ -17,12 +20,18 @@ public class BookingClient extends BaseClient {
 
     public BookingClient(@Value("${shareit.server.url}") String serverUrl,
                          RestTemplateBuilder builder,
-                         ObjectMapper objectMapper) {
+                         ObjectMapper objectMapper,
+                         @Value("${shareit.server.wire-format:json}") WireFormat wireFormat,
+                         ConcurrencyLimiters limiters,
+                         UpstreamResilience resilience) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build(),
-                objectMapper
+                objectMapper,
+                wireFormat,
+                limiters,
+                resilience
         );
     }
 
@@ -37,10 +46,29 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> applyDecisions(Long userId, List<BookingDecisionDto> decisions) {
+        return patch("", userId, decisions);
+    }
+
     public ResponseEntity<Object> getBooking(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
+    public ResponseEntity<Object> getUserBookingSummary(Long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getOwnerBookingSummary(Long ownerId) {
+        return get("/owner/summary", ownerId);
+    }
+
+    public ResponseEntity<Object> getBookingsByIds(List<Long> ids, Long userId) {
+        Map<String, Object> parameters = Map.of(
+                "ids", ids.stream().map(String::valueOf).collect(Collectors.joining(","))
+        );
+        return get("?ids={ids}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getUserBookings(Long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
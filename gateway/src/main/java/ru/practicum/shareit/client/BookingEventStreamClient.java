@@ -0,0 +1,114 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.api.ApiHeaders;
+import ru.practicum.shareit.balancer.ServerEndpoint;
+import ru.practicum.shareit.balancer.ServerLoadBalancer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Проксирует поток SSE сервера побайтно. Поток долгоживущий, поэтому идет мимо
+ * RestTemplate, лимитов параллелизма и хеджирования, через отдельный пул соединений.
+ * Копирование выполняется в асинхронном запросе на виртуальном потоке.
+ */
+@Slf4j
+public class BookingEventStreamClient {
+    private static final String PATH = "/bookings/events";
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final CloseableHttpClient httpClient;
+    private final ServerLoadBalancer balancer;
+    private final AtomicInteger open = new AtomicInteger();
+
+    public BookingEventStreamClient(CloseableHttpClient httpClient, ServerLoadBalancer balancer,
+                                    MeterRegistry meterRegistry) {
+        this.httpClient = httpClient;
+        this.balancer = balancer;
+        Gauge.builder("shareit.gateway.stream.connections", open, AtomicInteger::get)
+                .description("Открытые потоки событий бронирований")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<StreamingResponseBody> open(Long userId, String lastEventId) {
+        ServerEndpoint endpoint = balancer.choose();
+        HttpGet request = new HttpGet(endpoint.getUri().resolve(PATH));
+        request.setHeader(ApiHeaders.USER_ID, String.valueOf(userId));
+        // Ошибки до открытия потока сервер возвращает в JSON
+        request.setHeader(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE);
+        if (lastEventId != null) {
+            request.setHeader(LAST_EVENT_ID, lastEventId);
+        }
+
+        balancer.begin(endpoint);
+        ClassicHttpResponse response;
+        try {
+            response = httpClient.executeOpen(null, request, null);
+        } catch (ConnectException e) {
+            balancer.onFailure(endpoint, true);
+            throw new ResourceAccessException("Сервер недоступен", e);
+        } catch (IOException e) {
+            balancer.onFailure(endpoint, false);
+            throw new ResourceAccessException("Сервер недоступен", e);
+        }
+
+        HttpEntity entity = response.getEntity();
+        if (response.getCode() != 200) {
+            balancer.onSuccess(endpoint);
+            String contentType = entity != null ? entity.getContentType() : null;
+            byte[] body = readAndClose(response, entity);
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getCode());
+            if (contentType != null) {
+                builder.header(HttpHeaders.CONTENT_TYPE, contentType);
+            }
+            return builder.body(out -> out.write(body));
+        }
+
+        // Пока поток открыт, он занимает место в outstanding узла: балансировщик учитывает долгие соединения
+        balancer.onStreamOpened(endpoint);
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(out -> {
+                    open.incrementAndGet();
+                    try (response; InputStream in = entity.getContent()) {
+                        byte[] buffer = new byte[8192];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, read);
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        // Обрыв с любой стороны: клиент переподключится с Last-Event-ID
+                        log.debug("Поток событий пользователя ID {} прерван: {}", userId, e.getMessage());
+                    } finally {
+                        open.decrementAndGet();
+                        balancer.end(endpoint);
+                    }
+                });
+    }
+
+    private static byte[] readAndClose(ClassicHttpResponse response, HttpEntity entity) {
+        try (response) {
+            return entity != null ? EntityUtils.toByteArray(entity) : new byte[0];
+        } catch (IOException e) {
+            throw new ResourceAccessException("Сервер недоступен", e);
+        }
+    }
+}
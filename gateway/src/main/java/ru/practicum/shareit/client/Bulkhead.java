@@ -0,0 +1,12 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpMethod;
+
+public enum Bulkhead {
+    READ,
+    WRITE;
+
+    public static Bulkhead of(HttpMethod method) {
+        return HttpMethod.GET.equals(method) ? READ : WRITE;
+    }
+}
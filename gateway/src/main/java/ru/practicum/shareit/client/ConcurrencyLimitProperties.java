@@ -0,0 +1,45 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.server.concurrency")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private Map<Bulkhead, Limit> bulkheads = new EnumMap<>(Bulkhead.class);
+    // Ожидание свободного соединения в пуле; по истечении запрос отклоняется как при превышении лимита
+    private Duration connectionRequestTimeout = Duration.ofMillis(100);
+
+    public Limit limitFor(Bulkhead bulkhead) {
+        return bulkheads.computeIfAbsent(bulkhead, b -> new Limit());
+    }
+
+    /**
+     * Наибольшее число одновременных запросов ко всем отсекам сразу; хеджированные попытки
+     * занимают место в лимите, поэтому тоже укладываются в это число.
+     */
+    public int totalMaxLimit() {
+        int total = 0;
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            total += limitFor(bulkhead).getMaxLimit();
+        }
+        return total;
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        private double backoffRatio = 0.9;
+    }
+}
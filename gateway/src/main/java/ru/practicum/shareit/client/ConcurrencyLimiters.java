@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Отдельные ограничители для чтения и записи: всплеск поисковых запросов
+ * исчерпывает только лимит чтения, и бронирования продолжают проходить.
+ */
+public class ConcurrencyLimiters {
+    private final boolean enabled;
+    private final Map<Bulkhead, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Counter> shed = new EnumMap<>(Bulkhead.class);
+
+    public ConcurrencyLimiters(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties.limitFor(bulkhead));
+            limiters.put(bulkhead, limiter);
+            String tag = bulkhead.name().toLowerCase();
+            Gauge.builder("shareit.gateway.upstream.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.gateway.upstream.concurrency.inflight", limiter,
+                            AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+            shed.put(bulkhead, Counter.builder("shareit.gateway.upstream.shed")
+                    .description("Запросы, отклоненные шлюзом без обращения к серверу")
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AdaptiveConcurrencyLimiter get(Bulkhead bulkhead) {
+        return limiters.get(bulkhead);
+    }
+
+    public void recordShed(Bulkhead bulkhead) {
+        shed.get(bulkhead).increment();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.server.stream")
+public class EventStreamProperties {
+    // Сервер шлет пинг чаще, поэтому тишина дольше этого срока означает обрыв
+    private Duration idleTimeout = Duration.ofSeconds(45);
+    private Duration maxDuration = Duration.ofMinutes(35);
+    private int maxConnections = 10000;
+}
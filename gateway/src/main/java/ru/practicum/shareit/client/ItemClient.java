@@ -6,10 +6,12 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.item.comment.CommentRequestDto;
+import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class ItemClient extends BaseClient {
@@ -17,12 +19,18 @@ public class ItemClient extends BaseClient {
 
     public ItemClient(@Value("${shareit.server.url}") String serverUrl,
                       RestTemplateBuilder builder,
-                      ObjectMapper objectMapper) {
+                      ObjectMapper objectMapper,
+                      @Value("${shareit.server.wire-format:json}") WireFormat wireFormat,
+                      ConcurrencyLimiters limiters,
+                      UpstreamResilience resilience) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build(),
-                objectMapper
+                objectMapper,
+                wireFormat,
+                limiters,
+                resilience
         );
     }
 
@@ -38,10 +46,25 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> getItemStats(Long itemId, Long userId) {
+        return get("/" + itemId + "/stats", userId);
+    }
+
+    public ResponseEntity<Object> getSimilarItems(Long itemId, Integer size) {
+        return get("/" + itemId + "/similar?size={size}", null, Map.of("size", size));
+    }
+
     public ResponseEntity<Object> getItemsByOwner(Long userId) {
         return get("", userId);
     }
 
+    public ResponseEntity<Object> getItemsByIds(List<Long> ids, Long userId) {
+        Map<String, Object> parameters = Map.of(
+                "ids", ids.stream().map(String::valueOf).collect(Collectors.joining(","))
+        );
+        return get("?ids={ids}", userId, parameters);
+    }
+
     public ResponseEntity<Object> searchItems(String text) {
         return get("/search?text={text}", null, Map.of("text", text));
     }
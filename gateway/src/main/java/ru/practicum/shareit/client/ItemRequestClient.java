@@ -16,12 +16,18 @@ public class ItemRequestClient extends BaseClient {
 
     public ItemRequestClient(@Value("${shareit.server.url}") String serverUrl,
                              RestTemplateBuilder builder,
-                             ObjectMapper objectMapper) {
+                             ObjectMapper objectMapper,
+                             @Value("${shareit.server.wire-format:json}") WireFormat wireFormat,
+                             ConcurrencyLimiters limiters,
+                             UpstreamResilience resilience) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build(),
-                objectMapper
+                objectMapper,
+                wireFormat,
+                limiters,
+                resilience
         );
     }
 
@@ -33,7 +39,14 @@ public class ItemRequestClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "size", size,
+                    "cursor", cursor
+            );
+            return get("/all?size={size}&cursor={cursor}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
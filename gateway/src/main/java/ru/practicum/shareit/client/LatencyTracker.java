@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Скользящее окно последних задержек чтения, по которому вычисляется задержка хеджирования.
+ * Перцентиль пересчитывается раз в RECALCULATE_EVERY замеров, а не на каждом запросе.
+ */
+public class LatencyTracker {
+    private static final int WINDOW = 1024;
+    private static final int RECALCULATE_EVERY = 128;
+
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicInteger count = new AtomicInteger();
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private volatile long delayNanos;
+
+    public LatencyTracker(ResilienceProperties.Hedging settings) {
+        this.percentile = settings.getPercentile();
+        this.minDelayNanos = settings.getMinDelay().toNanos();
+        this.maxDelayNanos = settings.getMaxDelay().toNanos();
+        this.delayNanos = maxDelayNanos;
+    }
+
+    public void record(long latencyNanos) {
+        int n = count.getAndIncrement();
+        samples.set(Math.floorMod(n, WINDOW), latencyNanos);
+        if ((n + 1) % RECALCULATE_EVERY == 0) {
+            recalculate(Math.min(n + 1, WINDOW));
+        }
+    }
+
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    private void recalculate(int size) {
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        long value = copy[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.server.resilience")
+public class ResilienceProperties {
+    private Hedging hedging = new Hedging();
+    private Retry retry = new Retry();
+    private Budget budget = new Budget();
+
+    @Getter
+    @Setter
+    public static class Hedging {
+        private boolean enabled = true;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        private int maxAttempts = 3;
+        private Duration baseBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofMillis(500);
+    }
+
+    @Getter
+    @Setter
+    public static class Budget {
+        private double ratio = 0.1;
+        private int maxTokens = 100;
+        private int initialTokens = 5;
+    }
+}
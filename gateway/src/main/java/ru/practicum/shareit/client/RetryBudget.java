@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Общий бюджет повторов и хеджированных запросов: каждый завершившийся запрос пополняет его
+ * на ratio токена, каждая дополнительная попытка списывает один токен. Поэтому при отказе
+ * сервера дополнительная нагрузка не превышает ratio от исходной. Бюджет начинается
+ * с initial-tokens, чтобы только что запущенный шлюз не мог сразу отправить max-tokens лишних попыток.
+ */
+public class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final long depositPerCall;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget(ResilienceProperties.Budget settings) {
+        this.depositPerCall = (long) (settings.getRatio() * SCALE);
+        this.maxBalance = settings.getMaxTokens() * SCALE;
+        this.balance = new AtomicLong(Math.min(settings.getInitialTokens(), settings.getMaxTokens()) * SCALE);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositPerCall, (current, delta) -> Math.min(maxBalance, current + delta));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    public double getBalance() {
+        return (double) balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,225 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Повторы при ошибках соединения и хеджирование идемпотентных GET-запросов.
+ * Обе меры расходуют общий {@link RetryBudget}.
+ */
+@Slf4j
+public class UpstreamResilience implements AutoCloseable {
+    private final ResilienceProperties properties;
+    private final RetryBudget budget;
+    private final LatencyTracker latencyTracker;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter retries;
+    private final Counter budgetExhausted;
+    private final Counter hedgesWon;
+    private final Counter hedgesLost;
+
+    public UpstreamResilience(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.budget = new RetryBudget(properties.getBudget());
+        this.latencyTracker = new LatencyTracker(properties.getHedging());
+        this.retries = Counter.builder("shareit.gateway.upstream.retries").register(meterRegistry);
+        this.budgetExhausted = Counter.builder("shareit.gateway.upstream.retry.budget.exhausted")
+                .description("Повторы и хеджирование, отмененные из-за исчерпания бюджета")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("shareit.gateway.upstream.hedges").tag("outcome", "won")
+                .register(meterRegistry);
+        this.hedgesLost = Counter.builder("shareit.gateway.upstream.hedges").tag("outcome", "lost")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.upstream.retry.budget", budget, RetryBudget::getBalance)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.upstream.hedge.delay", latencyTracker,
+                        tracker -> tracker.getDelayNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(HttpMethod method, Supplier<T> call, AdaptiveConcurrencyLimiter limiter) {
+        Supplier<T> withRetries = () -> withRetries(call);
+        T result = HttpMethod.GET.equals(method) ? hedged(withRetries, limiter) : withRetries.get();
+        // Бюджет пополняют только завершившиеся вызовы: при отказах сервера он не растет
+        budget.deposit();
+        return result;
+    }
+
+    /**
+     * Повторяет вызов, только если соединение с сервером не было установлено:
+     * запрос до сервера не дошел, поэтому повтор безопасен для любого метода.
+     */
+    private <T> T withRetries(Supplier<T> call) {
+        ResilienceProperties.Retry settings = properties.getRetry();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (ResourceAccessException e) {
+                if (!isConnectFailure(e) || attempt >= settings.getMaxAttempts()) {
+                    throw e;
+                }
+                if (!budget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                long backoff = Math.min(settings.getMaxBackoff().toMillis(),
+                        settings.getBaseBackoff().toMillis() << (attempt - 1));
+                log.debug("Ошибка соединения с сервером, попытка {} из {}: {}",
+                        attempt, settings.getMaxAttempts(), e.getMessage());
+                sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+            }
+        }
+    }
+
+    /**
+     * Если ответ не пришел за перцентильную задержку, отправляет второй такой же запрос
+     * и возвращает первый успешный ответ. Второй запрос занимает отдельное место в лимите,
+     * проигравшая попытка прерывается, освобождая соединение.
+     */
+    private <T> T hedged(Supplier<T> call, AdaptiveConcurrencyLimiter limiter) {
+        if (!properties.getHedging().isEnabled()) {
+            return timed(call).get();
+        }
+        CompletableFuture<T> primary = attempt(timed(call));
+        try {
+            return primary.get(latencyTracker.getDelayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.trace("Ответ не получен за {} мс, рассматривается хеджирование",
+                    latencyTracker.getDelayNanos() / 1_000_000);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            throw new IllegalStateException("Ожидание ответа сервера прервано", e);
+        }
+
+        if (!budget.tryWithdraw()) {
+            budgetExhausted.increment();
+            return join(primary);
+        }
+        if (limiter != null && !limiter.tryAcquire()) {
+            return join(primary);
+        }
+        CompletableFuture<T> hedge = attempt(timed(call));
+        if (limiter != null) {
+            hedge.whenComplete((result, error) -> limiter.onIgnored());
+        }
+        CompletableFuture<T> winner = firstSuccessful(primary, hedge);
+        T result;
+        try {
+            result = join(winner);
+        } finally {
+            // Завершенную попытку отмена не затрагивает
+            primary.cancel(true);
+            hedge.cancel(true);
+        }
+        (hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == result ? hedgesWon : hedgesLost)
+                .increment();
+        return result;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Запускает попытку в виртуальном потоке. Отмена результата прерывает поток, а прерывание
+     * виртуального потока, ждущего ответа из сокета, закрывает сокет — запрос обрывается,
+     * и соединение не остается занятым до конца ответа.
+     */
+    private <T> CompletableFuture<T> attempt(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <T> Supplier<T> timed(Supplier<T> call) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = call.get();
+            latencyTracker.record(System.nanoTime() - start);
+            return result;
+        };
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> attempt : List.of(first, second)) {
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof RuntimeException runtime ? runtime : new IllegalStateException(error);
+    }
+
+    private static boolean isConnectFailure(ResourceAccessException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof ConnectException
+                || cause instanceof ConnectTimeoutException
+                || cause instanceof UnknownHostException;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание перед повтором прервано", e);
+        }
+    }
+}
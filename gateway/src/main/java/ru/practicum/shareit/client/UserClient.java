@@ -8,18 +8,28 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Component
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     public UserClient(@Value("${shareit.server.url}") String serverUrl,
                       RestTemplateBuilder builder,
-                      ObjectMapper objectMapper) {
+                      ObjectMapper objectMapper,
+                      @Value("${shareit.server.wire-format:json}") WireFormat wireFormat,
+                      ConcurrencyLimiters limiters,
+                      UpstreamResilience resilience) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build(),
-                objectMapper
+                objectMapper,
+                wireFormat,
+                limiters,
+                resilience
         );
     }
 
@@ -39,6 +49,17 @@ public class UserClient extends BaseClient {
         return delete("/" + userId);
     }
 
+    public ResponseEntity<Object> getUserDeletion(Long userId) {
+        return get("/" + userId + "/deletion");
+    }
+
+    public ResponseEntity<Object> getUsersByIds(List<Long> ids) {
+        Map<String, Object> parameters = Map.of(
+                "ids", ids.stream().map(String::valueOf).collect(Collectors.joining(","))
+        );
+        return get("?ids={ids}", null, parameters);
+    }
+
     public ResponseEntity<Object> getAllUsers() {
         return get("");
     }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.balancer.ServerLoadBalancer;
+import ru.practicum.shareit.client.BookingEventStreamClient;
+import ru.practicum.shareit.client.EventStreamProperties;
+
+@Configuration
+@EnableConfigurationProperties(EventStreamProperties.class)
+public class EventStreamConfig {
+    private static final Timeout CONNECT_TIMEOUT = Timeout.ofSeconds(5);
+
+    // Отдельный пул: потоки живут минутами и не должны вытеснять обычные запросы
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItStreamHttpClient(EventStreamProperties properties) {
+        return HttpClients.custom()
+                .disableContentCompression()
+                .disableAutomaticRetries()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(properties.getMaxConnections())
+                        .setMaxConnPerRoute(properties.getMaxConnections())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(CONNECT_TIMEOUT)
+                                .setSocketTimeout(Timeout.of(properties.getIdleTimeout()))
+                                .build())
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public BookingEventStreamClient bookingEventStreamClient(CloseableHttpClient shareItStreamHttpClient,
+                                                             ServerLoadBalancer serverLoadBalancer,
+                                                             MeterRegistry meterRegistry) {
+        return new BookingEventStreamClient(shareItStreamHttpClient, serverLoadBalancer, meterRegistry);
+    }
+
+    // Асинхронные запросы в шлюзе — только потоки событий: каждый копируется на своем виртуальном потоке
+    @Bean
+    public WebMvcConfigurer eventStreamAsyncSupport(EventStreamProperties properties) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("event-stream-");
+        executor.setVirtualThreads(true);
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(executor);
+                configurer.setDefaultTimeout(properties.getMaxDuration().toMillis());
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.balancer.LoadBalancerProperties;
+import ru.practicum.shareit.balancer.LoadBalancingInterceptor;
+import ru.practicum.shareit.balancer.ServerHealthChecker;
+import ru.practicum.shareit.balancer.ServerLoadBalancer;
+
+import java.net.URI;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public ServerLoadBalancer serverLoadBalancer(@Value("${shareit.server.url}") String serverUrl,
+                                                 LoadBalancerProperties properties,
+                                                 MeterRegistry meterRegistry) {
+        List<String> urls = properties.getUrls().isEmpty() ? List.of(serverUrl) : properties.getUrls();
+        return new ServerLoadBalancer(urls, properties, meterRegistry);
+    }
+
+    @Bean
+    public RestTemplateCustomizer loadBalancingCustomizer(@Value("${shareit.server.url}") String serverUrl,
+                                                          ServerLoadBalancer serverLoadBalancer) {
+        LoadBalancingInterceptor interceptor = new LoadBalancingInterceptor(URI.create(serverUrl), serverLoadBalancer);
+        return restTemplate -> restTemplate.getInterceptors().add(interceptor);
+    }
+
+    // Проверка состояния идет мимо перехватчика, напрямую на каждый узел
+    @Bean
+    public SchedulingConfigurer serverHealthCheckScheduling(ServerLoadBalancer serverLoadBalancer,
+                                                            CloseableHttpClient shareItServerHttpClient,
+                                                            LoadBalancerProperties properties) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient));
+        ServerHealthChecker checker = new ServerHealthChecker(serverLoadBalancer, restTemplate,
+                properties.getHealthCheckPath());
+        return registrar -> {
+            if (serverLoadBalancer.getEndpoints().size() > 1) {
+                registrar.addFixedDelayTask(checker::check, properties.getHealthCheckInterval());
+            }
+        };
+    }
+}
@@ -1,19 +1,57 @@
 package ru.practicum.shareit.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
-
-import java.time.Duration;
+import ru.practicum.shareit.balancer.ServerLoadBalancer;
+import ru.practicum.shareit.client.ConcurrencyLimitProperties;
 
 @Configuration
 public class RestTemplateConfig {
+    private static final Timeout CONNECT_TIMEOUT = Timeout.ofSeconds(5);
+    private static final Timeout READ_TIMEOUT = Timeout.ofSeconds(10);
+
+    // Сжатые ответы сервера передаются клиенту без распаковки, поэтому автоматическая
+    // распаковка HttpClient отключена. Пул вмещает все запросы, допускаемые лимитами параллелизма,
+    // на каждый экземпляр сервера: очередь образуется в лимитере, а не в ожидании соединения
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItServerHttpClient(ConcurrencyLimitProperties concurrencyProperties,
+                                                       ServerLoadBalancer serverLoadBalancer) {
+        int perRoute = concurrencyProperties.totalMaxLimit();
+        return HttpClients.custom()
+                .disableContentCompression()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(
+                                Timeout.of(concurrencyProperties.getConnectionRequestTimeout()))
+                        .build())
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnPerRoute(perRoute)
+                        .setMaxConnTotal(perRoute * serverLoadBalancer.getEndpoints().size())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(CONNECT_TIMEOUT)
+                                .setSocketTimeout(READ_TIMEOUT)
+                                .build())
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public RestTemplateCustomizer shareItServerRequestFactoryCustomizer(CloseableHttpClient shareItServerHttpClient) {
+        return restTemplate -> restTemplate.setRequestFactory(
+                new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient));
+    }
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder
-                .setConnectTimeout(Duration.ofSeconds(5))
-                .setReadTimeout(Duration.ofSeconds(10))
-                .build();
+        return builder.build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.client.ConcurrencyLimitProperties;
+import ru.practicum.shareit.client.ConcurrencyLimiters;
+import ru.practicum.shareit.client.ResilienceProperties;
+import ru.practicum.shareit.client.UpstreamResilience;
+
+@Configuration
+@EnableConfigurationProperties({ConcurrencyLimitProperties.class, ResilienceProperties.class})
+public class UpstreamPolicyConfig {
+
+    @Bean
+    public ConcurrencyLimiters concurrencyLimiters(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiters(properties, meterRegistry);
+    }
+
+    @Bean
+    public UpstreamResilience upstreamResilience(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new UpstreamResilience(properties, meterRegistry);
+    }
+}
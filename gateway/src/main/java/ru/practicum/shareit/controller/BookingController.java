@@ -1,18 +1,26 @@
 package ru.practicum.shareit.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.client.BookingClient;
+import ru.practicum.shareit.client.BookingEventStreamClient;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingClient bookingClient;
+    private final BookingEventStreamClient bookingEventStreamClient;
 
     @PostMapping
     public ResponseEntity<Object> createBooking(
@@ -29,6 +37,32 @@ public class BookingController {
         return bookingClient.updateBookingStatus(bookingId, userId, approved);
     }
 
+    @PatchMapping
+    public ResponseEntity<Object> applyDecisions(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody List<@Valid BookingDecisionDto> decisions) {
+        return bookingClient.applyDecisions(userId, decisions);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookingEvents(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return bookingEventStreamClient.open(userId, lastEventId != null ? String.valueOf(lastEventId) : null);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getUserBookingSummary(
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingClient.getUserBookingSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerBookingSummary(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return bookingClient.getOwnerBookingSummary(ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingById(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -36,6 +70,13 @@ public class BookingController {
         return bookingClient.getBooking(bookingId, userId);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getBookingsByIds(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam List<@Positive Long> ids) {
+        return bookingClient.getBookingsByIds(ids, userId);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getUserBookings(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -7,10 +7,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.client.ItemClient;
-import ru.practicum.shareit.item.comment.CommentRequestDto;
+import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
@@ -44,6 +46,27 @@ public class ItemController {
         return itemClient.getItem(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/stats")
+    public ResponseEntity<Object> getItemStats(
+            @PathVariable @Positive Long itemId,
+            @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId) {
+        return itemClient.getItemStats(itemId, userId);
+    }
+
+    @GetMapping("/{itemId}/similar")
+    public ResponseEntity<Object> getSimilarItems(
+            @PathVariable @Positive Long itemId,
+            @RequestParam(defaultValue = "10") @Positive Integer size) {
+        return itemClient.getSimilarItems(itemId, size);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getItemsByIds(
+            @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId,
+            @RequestParam List<@Positive Long> ids) {
+        return itemClient.getItemsByIds(ids, userId);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getItemsByOwner(
             @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId,
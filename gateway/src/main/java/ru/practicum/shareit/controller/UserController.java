@@ -9,6 +9,8 @@ import ru.practicum.shareit.client.UserClient;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -41,6 +43,16 @@ public class UserController {
         return userClient.deleteUser(userId);
     }
 
+    @GetMapping("/{userId}/deletion")
+    public ResponseEntity<Object> getUserDeletion(@PathVariable @Positive Long userId) {
+        return userClient.getUserDeletion(userId);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getUsersByIds(@RequestParam List<@Positive Long> ids) {
+        return userClient.getUsersByIds(ids);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAllUsers() {
         return userClient.getAllUsers();
@@ -1,19 +0,0 @@
-package ru.practicum.shareit.item.comment;
-
-import com.fasterxml.jackson.annotation.JsonFormat;
-import lombok.*;
-
-import java.time.LocalDateTime;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class CommentDto {
-    private Long id;
-    private String text;
-    private String authorName;
-
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime created;
-}
\ No newline at end of file
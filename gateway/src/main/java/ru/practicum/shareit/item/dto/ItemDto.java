@@ -1,34 +0,0 @@
-package ru.practicum.shareit.item.dto;
-
-import com.fasterxml.jackson.annotation.JsonInclude;
-import lombok.*;
-import ru.practicum.shareit.item.comment.CommentDto;
-
-import java.util.List;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-@JsonInclude(JsonInclude.Include.ALWAYS)
-public class ItemDto {
-    private Long id;
-    private String name;
-    private String description;
-    private Boolean available;
-    private Long ownerId;
-    private Long requestId;
-    private BookingInfo lastBooking;
-    private BookingInfo nextBooking;
-    private List<CommentDto> comments;
-
-    @Data
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    @JsonInclude(JsonInclude.Include.ALWAYS)
-    public static class BookingInfo {
-        private Long id;
-        private Long bookerId;
-    }
-}
\ No newline at end of file
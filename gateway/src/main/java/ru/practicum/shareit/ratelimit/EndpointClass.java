@@ -0,0 +1,17 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+public enum EndpointClass {
+    SEARCH,
+    READ,
+    WRITE;
+
+    public static EndpointClass of(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return WRITE;
+        }
+        return request.getRequestURI().endsWith("/search") ? SEARCH : READ;
+    }
+}
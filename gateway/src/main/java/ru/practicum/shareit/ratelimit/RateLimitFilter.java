@@ -0,0 +1,61 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.api.ApiHeaders;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"error\":\"Слишком много запросов\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiterRegistry registry;
+
+    public RateLimitFilter(RateLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        String key = key(request);
+        long wait = registry.tryAcquire(endpointClass, key);
+        if (wait == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("Запрос {} {} от {} отклонен ограничителем ({})",
+                request.getMethod(), request.getRequestURI(), key, endpointClass);
+        long retryAfter = wait == RateLimiterRegistry.REJECTED_NO_CAPACITY
+                ? 1 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+        response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+    }
+
+    // Запросы без заголовка пользователя (например, регистрация) ограничиваются по адресу клиента
+    private static String key(HttpServletRequest request) {
+        String userId = request.getHeader(ApiHeaders.USER_ID);
+        return userId != null && !userId.isBlank() ? "user:" + userId.trim() : "ip:" + request.getRemoteAddr();
+    }
+}
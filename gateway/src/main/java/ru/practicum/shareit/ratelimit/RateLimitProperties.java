@@ -0,0 +1,36 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int maxKeys = 100_000;
+    private Duration sweepInterval = Duration.ofSeconds(30);
+    private Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+
+    public Limit limitFor(EndpointClass endpointClass) {
+        return limits.getOrDefault(endpointClass, Limit.UNLIMITED);
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        static final Limit UNLIMITED = new Limit();
+
+        private int capacity = 0;
+        private double refillPerSecond = 0;
+
+        public boolean isUnlimited() {
+            return capacity <= 0 || refillPerSecond <= 0;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+public class RateLimiterRegistry {
+    public static final long REJECTED_NO_CAPACITY = -1;
+
+    private final RateLimitProperties properties;
+    private final Map<EndpointClass, ConcurrentHashMap<String, TokenBucket>> buckets = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> allowed = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+
+    public RateLimiterRegistry(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            ConcurrentHashMap<String, TokenBucket> classBuckets = new ConcurrentHashMap<>();
+            buckets.put(endpointClass, classBuckets);
+            allowed.put(endpointClass, counter(meterRegistry, endpointClass, "allowed"));
+            rejected.put(endpointClass, counter(meterRegistry, endpointClass, "rejected"));
+            Gauge.builder("shareit.gateway.ratelimit.keys", classBuckets, Map::size)
+                    .description("Количество активных ключей ограничителя")
+                    .tag("class", endpointClass.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @return 0, если запрос допущен; время ожидания в наносекундах, если лимит исчерпан;
+     * {@link #REJECTED_NO_CAPACITY}, если для нового ключа не осталось места
+     */
+    public long tryAcquire(EndpointClass endpointClass, String key) {
+        RateLimitProperties.Limit limit = properties.limitFor(endpointClass);
+        if (limit.isUnlimited()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        ConcurrentHashMap<String, TokenBucket> classBuckets = buckets.get(endpointClass);
+        TokenBucket bucket = classBuckets.get(key);
+        if (bucket == null) {
+            if (classBuckets.size() >= properties.getMaxKeys()) {
+                sweep(classBuckets, now);
+                if (classBuckets.size() >= properties.getMaxKeys()) {
+                    rejected.get(endpointClass).increment();
+                    return REJECTED_NO_CAPACITY;
+                }
+            }
+            bucket = classBuckets.computeIfAbsent(key, k -> new TokenBucket(limit));
+        }
+        long wait = bucket.tryAcquire(now);
+        (wait == 0 ? allowed : rejected).get(endpointClass).increment();
+        return wait;
+    }
+
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().forEach(classBuckets -> sweep(classBuckets, now));
+    }
+
+    private void sweep(ConcurrentHashMap<String, TokenBucket> classBuckets, long now) {
+        int before = classBuckets.size();
+        classBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+        log.debug("Удалено {} неактивных ключей ограничителя", before - classBuckets.size());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, EndpointClass endpointClass, String outcome) {
+        return Counter.builder("shareit.gateway.ratelimit.requests")
+                .tag("class", endpointClass.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
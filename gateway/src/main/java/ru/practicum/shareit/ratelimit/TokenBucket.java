@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ведро токенов в форме GCRA: всё состояние — одно «теоретическое время прихода»,
+ * поэтому списание токена выполняется одним CAS без блокировок.
+ */
+public class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(RateLimitProperties.Limit limit) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / limit.getRefillPerSecond());
+        this.burstToleranceNanos = emissionIntervalNanos * (limit.getCapacity() - 1);
+    }
+
+    /**
+     * @return 0, если токен выдан, иначе время в наносекундах до появления следующего токена
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = current == Long.MIN_VALUE ? nowNanos : Math.max(current, nowNanos);
+            long allowAt = base - burstToleranceNanos;
+            if (nowNanos < allowAt) {
+                return allowAt - nowNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Полностью восстановившееся ведро ничем не отличается от нового и может быть удалено
+    public boolean isIdle(long nowNanos) {
+        long current = theoreticalArrival.get();
+        return current == Long.MIN_VALUE || current - nowNanos <= 0;
+    }
+}
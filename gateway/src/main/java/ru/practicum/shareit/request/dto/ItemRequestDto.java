@@ -1,13 +0,0 @@
-package ru.practicum.shareit.request.dto;
-
-import jakarta.validation.constraints.NotBlank;
-import lombok.*;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class ItemRequestDto {
-    @NotBlank(message = "Описание запроса не может быть пустым")
-    private String description;
-}
\ No newline at end of file
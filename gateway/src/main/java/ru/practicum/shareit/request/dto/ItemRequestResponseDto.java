@@ -1,20 +0,0 @@
-package ru.practicum.shareit.request.dto;
-
-import com.fasterxml.jackson.annotation.JsonFormat;
-import lombok.*;
-import ru.practicum.shareit.item.dto.ItemDto;
-
-import java.time.LocalDateTime;
-import java.util.List;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class ItemRequestResponseDto {
-    private Long id;
-    private String description;
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime created;
-    private List<ItemDto> items;
-}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Каждый исход запроса к серверу должен вернуть место в лимите одновременных запросов.
+ */
+class BaseClientTest {
+    private final RestTemplate rest = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimiters limiters = new ConcurrencyLimiters(new ConcurrencyLimitProperties(), meterRegistry);
+    private final UpstreamResilience resilience = new UpstreamResilience(new ResilienceProperties(), meterRegistry);
+    private final BaseClient client = new BaseClient(rest, new ObjectMapper(), WireFormat.JSON, limiters, resilience);
+
+    @AfterEach
+    void tearDown() {
+        resilience.close();
+    }
+
+    @Test
+    void connectionErrorReleasesPermitAndLowersLimit() {
+        server.expect(requestTo("/items")).andRespond(withException(new IOException("Connection reset")));
+
+        assertThatThrownBy(() -> client.post("/items", 1L, Map.of())).isInstanceOf(ResourceAccessException.class);
+
+        assertReleased(HttpMethod.POST);
+        assertThat(limiter(HttpMethod.POST).getLimit()).isLessThan(initialLimit());
+    }
+
+    @Test
+    void connectionErrorOnHedgedReadReleasesPermit() {
+        server.expect(requestTo("/items/1")).andRespond(withException(new IOException("Connection reset")));
+
+        assertThatThrownBy(() -> client.get("/items/1", 1L)).isInstanceOf(ResourceAccessException.class);
+
+        assertReleased(HttpMethod.GET);
+    }
+
+    @Test
+    void poolExhaustionSheds503WithoutChangingLimit() {
+        server.expect(requestTo("/items"))
+                .andRespond(withException(new ConnectionRequestTimeoutException("Пул соединений исчерпан")));
+
+        ResponseEntity<Object> response = client.post("/items", 1L, Map.of());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertReleased(HttpMethod.POST);
+        assertThat(limiter(HttpMethod.POST).getLimit()).isEqualTo(initialLimit());
+    }
+
+    @Test
+    void serverOverloadReleasesPermitAndLowersLimit() {
+        server.expect(requestTo("/items")).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        ResponseEntity<Object> response = client.post("/items", 1L, Map.of());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertReleased(HttpMethod.POST);
+        assertThat(limiter(HttpMethod.POST).getLimit()).isLessThan(initialLimit());
+    }
+
+    @Test
+    void brokenResponseBodyReleasesPermit() {
+        server.expect(requestTo("/items"))
+                .andRespond(withSuccess(new byte[]{0x3A, 0x29, 0x0A, 0x00, 0x7F}, WireFormat.SMILE.getMediaType()));
+
+        assertThatThrownBy(() -> client.post("/items", 1L, Map.of())).isInstanceOf(UncheckedIOException.class);
+
+        assertReleased(HttpMethod.POST);
+        assertThat(limiter(HttpMethod.POST).getLimit()).isEqualTo(initialLimit());
+    }
+
+    private void assertReleased(HttpMethod method) {
+        server.verify();
+        assertThat(limiter(method).getInFlight()).isZero();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(HttpMethod method) {
+        return limiters.get(Bulkhead.of(method));
+    }
+
+    private static int initialLimit() {
+        return new ConcurrencyLimitProperties.Limit().getInitialLimit();
+    }
+}
@@ -35,4 +35,8 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
     private BookingStatus status;
+
+    // Пусто у бронирований, созданных до появления столбца
+    @Column(name = "created")
+    private LocalDateTime created;
 }
\ No newline at end of file
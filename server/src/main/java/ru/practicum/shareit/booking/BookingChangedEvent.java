@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Публикуется внутри транзакции при создании бронирования или смене его статуса.
+ */
+@Value
+public class BookingChangedEvent {
+    List<Long> bookingIds;
+
+    public static BookingChangedEvent of(Long bookingId) {
+        return new BookingChangedEvent(List.of(bookingId));
+    }
+}
@@ -1,10 +1,16 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.stream.BookingStreamHub;
 
 import java.util.List;
 
@@ -13,6 +19,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingStreamHub bookingStreamHub;
 
     @PostMapping
     public ResponseEntity<BookingDto> createBooking(
@@ -31,6 +38,33 @@ public class BookingController {
         return ResponseEntity.ok(bookingDto);
     }
 
+    @PatchMapping
+    public ResponseEntity<List<BookingDecisionResultDto>> applyDecisions(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody List<BookingDecisionDto> decisions) {
+        List<BookingDecisionResultDto> results = bookingService.applyDecisions(decisions, userId);
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingEvents(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return bookingStreamHub.subscribe(userId, lastEventId);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<BookingSummaryDto> getUserBookingSummary(
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(bookingService.getUserBookingSummary(userId));
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<BookingSummaryDto> getOwnerBookingSummary(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return ResponseEntity.ok(bookingService.getOwnerBookingSummary(ownerId));
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingDto> getBookingById(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -39,6 +73,14 @@ public class BookingController {
         return ResponseEntity.ok(bookingDto);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<BookingDto>> getBookingsByIds(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam List<Long> ids) {
+        List<BookingDto> bookings = bookingService.getBookingsByIds(ids, userId);
+        return ResponseEntity.ok(bookings);
+    }
+
     @GetMapping
     public ResponseEntity<List<BookingDto>> getUserBookings(
             @RequestHeader("X-Sharer-User-Id") Long userId,
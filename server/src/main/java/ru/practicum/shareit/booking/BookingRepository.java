@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -18,8 +21,9 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "AND b.start <= :currentTime AND b.end >= :currentTime ORDER BY b.start DESC")
     List<Booking> findByBookerIdAndCurrentTime(Long bookerId, LocalDateTime currentTime, Pageable pageable);
 
+    // Условие по start избыточно (start < end), но позволяет PostgreSQL отсечь будущие секции
     @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
-           "AND b.end < :currentTime ORDER BY b.start DESC")
+           "AND b.start < :currentTime AND b.end < :currentTime ORDER BY b.start DESC")
     List<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime currentTime, Pageable pageable);
 
     @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
@@ -30,6 +34,17 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "AND b.status = :status ORDER BY b.start DESC")
     List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
 
+    // Условия совпадают с запросами по состояниям выше
+    @Query("SELECT " +
+           "COUNT(b) AS total, " +
+           "COALESCE(SUM(CASE WHEN b.start <= :currentTime AND b.end >= :currentTime THEN 1 ELSE 0 END), 0) AS current, " +
+           "COALESCE(SUM(CASE WHEN b.end < :currentTime THEN 1 ELSE 0 END), 0) AS past, " +
+           "COALESCE(SUM(CASE WHEN b.start > :currentTime THEN 1 ELSE 0 END), 0) AS future, " +
+           "COALESCE(SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END), 0) AS waiting, " +
+           "COALESCE(SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END), 0) AS rejected " +
+           "FROM Booking b WHERE b.booker.id = :bookerId")
+    BookingStateCounts countStatesByBookerId(Long bookerId, LocalDateTime currentTime);
+
     @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId ORDER BY b.start DESC")
     List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
 
@@ -37,8 +52,9 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "AND b.start <= :currentTime AND b.end >= :currentTime ORDER BY b.start DESC")
     List<Booking> findByItemOwnerIdAndCurrentTime(Long ownerId, LocalDateTime currentTime, Pageable pageable);
 
+    // Условие по start избыточно (start < end), но позволяет PostgreSQL отсечь будущие секции
     @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
-           "AND b.end < :currentTime ORDER BY b.start DESC")
+           "AND b.start < :currentTime AND b.end < :currentTime ORDER BY b.start DESC")
     List<Booking> findByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime currentTime, Pageable pageable);
 
     @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
@@ -49,6 +65,16 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "AND b.status = :status ORDER BY b.start DESC")
     List<Booking> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
 
+    @Query("SELECT " +
+           "COUNT(b) AS total, " +
+           "COALESCE(SUM(CASE WHEN b.start <= :currentTime AND b.end >= :currentTime THEN 1 ELSE 0 END), 0) AS current, " +
+           "COALESCE(SUM(CASE WHEN b.end < :currentTime THEN 1 ELSE 0 END), 0) AS past, " +
+           "COALESCE(SUM(CASE WHEN b.start > :currentTime THEN 1 ELSE 0 END), 0) AS future, " +
+           "COALESCE(SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END), 0) AS waiting, " +
+           "COALESCE(SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END), 0) AS rejected " +
+           "FROM Booking b WHERE b.item.owner.id = :ownerId")
+    BookingStateCounts countStatesByItemOwnerId(Long ownerId, LocalDateTime currentTime);
+
     @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId " +
            "AND b.start <= :date AND b.status = :status " +
            "ORDER BY b.start DESC")
@@ -73,6 +99,28 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "WHERE b.item.id = :itemId " +
            "AND b.booker.id = :bookerId " +
            "AND b.status = 'APPROVED' " +
+           "AND b.start < CURRENT_TIMESTAMP " +
            "AND b.end < CURRENT_TIMESTAMP")
     List<Booking> findPastApprovedBookings(Long itemId, Long bookerId);
-}
\ No newline at end of file
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+           "WHERE b.id IN :ids " +
+           "AND (b.booker.id = :userId OR i.owner.id = :userId)")
+    List<Booking> findAccessibleByIdIn(List<Long> ids, Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id AS id, b.item.owner.id AS ownerId, b.item.id AS itemId, b.booker.id AS bookerId, " +
+           "b.start AS start, b.end AS end, b.status AS status " +
+           "FROM Booking b WHERE b.id IN :ids")
+    List<BookingOwnership> lockOwnershipByIdIn(List<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b " +
+           "SET b.status = CASE WHEN b.id IN :approvedIds THEN :approved ELSE :rejected END " +
+           "WHERE b.id IN :ids AND b.status = :waiting")
+    int applyDecisions(List<Long> ids, List<Long> approvedIds,
+                       BookingStatus approved, BookingStatus rejected, BookingStatus waiting);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.status = :status")
+    List<Booking> findByItemIdInAndStatus(List<Long> itemIds, BookingStatus status);
+}
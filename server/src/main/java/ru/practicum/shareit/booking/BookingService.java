@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
@@ -15,4 +18,12 @@ public interface BookingService {
     List<BookingDto> getUserBookings(Long userId, BookingState state, int from, int size);
 
     List<BookingDto> getOwnerBookings(Long ownerId, BookingState state, int from, int size);
+
+    BookingSummaryDto getUserBookingSummary(Long userId);
+
+    BookingSummaryDto getOwnerBookingSummary(Long ownerId);
+
+    List<BookingDto> getBookingsByIds(List<Long> bookingIds, Long userId);
+
+    List<BookingDecisionResultDto> applyDecisions(List<BookingDecisionDto> decisions, Long userId);
 }
\ No newline at end of file
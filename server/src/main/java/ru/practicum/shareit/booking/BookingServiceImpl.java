@@ -1,27 +1,42 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.*;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.*;
+import ru.practicum.shareit.outbox.EventType;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Outbox outbox;
 
     @Override
     @Transactional
@@ -71,12 +86,17 @@ public class BookingServiceImpl implements BookingService {
                 .item(item)
                 .booker(booker)
                 .status(BookingStatus.WAITING)
+                .created(LocalDateTime.now())
                 .build();
 
         log.debug("Создано бронирование: пользователь ID {}, вещь ID {}, статус {}",
                 booker.getId(), item.getId(), BookingStatus.WAITING);
 
         Booking savedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(savedBooking.getId()));
+        outbox.append(EventType.BOOKING_CREATED, savedBooking.getId(), bookingPayload(savedBooking.getId(),
+                item.getId(), booker.getId(), item.getOwner().getId(), savedBooking.getStatus(),
+                savedBooking.getStart(), savedBooking.getEnd()));
 
         log.info("Бронирование успешно создано с ID {}", savedBooking.getId());
         return toDto(savedBooking);
@@ -115,6 +135,11 @@ public class BookingServiceImpl implements BookingService {
         log.debug("Установлен новый статус {} для бронирования ID {}", newStatus, bookingId);
 
         Booking updatedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(updatedBooking.getId()));
+        outbox.append(approved ? EventType.BOOKING_APPROVED : EventType.BOOKING_REJECTED, updatedBooking.getId(),
+                bookingPayload(updatedBooking.getId(), updatedBooking.getItem().getId(),
+                        updatedBooking.getBooker().getId(), userId, newStatus,
+                        updatedBooking.getStart(), updatedBooking.getEnd()));
 
         log.info("Статус бронирования ID {} успешно обновлен на {}",
                 updatedBooking.getId(), newStatus);
@@ -245,6 +270,133 @@ public class BookingServiceImpl implements BookingService {
         return bookings.stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    public BookingSummaryDto getUserBookingSummary(Long userId) {
+        log.info("Запрос сводки бронирований пользователя ID {}", userId);
+
+        getUser(userId);
+
+        BookingSummaryDto summary = toSummary(
+                bookingRepository.countStatesByBookerId(userId, LocalDateTime.now()));
+        log.debug("Сводка бронирований пользователя ID {}: {}", userId, summary);
+        return summary;
+    }
+
+    @Override
+    public BookingSummaryDto getOwnerBookingSummary(Long ownerId) {
+        log.info("Запрос сводки бронирований владельца ID {}", ownerId);
+
+        getUser(ownerId);
+
+        BookingSummaryDto summary = toSummary(
+                bookingRepository.countStatesByItemOwnerId(ownerId, LocalDateTime.now()));
+        log.debug("Сводка бронирований владельца ID {}: {}", ownerId, summary);
+        return summary;
+    }
+
+    @Override
+    public List<BookingDto> getBookingsByIds(List<Long> bookingIds, Long userId) {
+        log.info("Запрос на получение {} бронирований по списку ID пользователем ID {}",
+                bookingIds.size(), userId);
+
+        List<Long> uniqueIds = bookingIds.stream().distinct().toList();
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            log.warn("Запрошено {} бронирований, допустимо не более {}", uniqueIds.size(), MAX_BATCH_SIZE);
+            throw new BadRequestException("Нельзя запросить более " + MAX_BATCH_SIZE + " бронирований за раз");
+        }
+
+        getUser(userId);
+
+        // Проверка доступа выполняется в самом запросе: бронирования, где пользователь
+        // не автор и не владелец вещи, в выборку не попадают
+        Map<Long, Booking> bookings = bookingRepository.findAccessibleByIdIn(uniqueIds, userId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        log.debug("Пользователю ID {} доступно {} из {} запрошенных бронирований",
+                userId, bookings.size(), uniqueIds.size());
+
+        return uniqueIds.stream()
+                .map(bookings::get)
+                .filter(Objects::nonNull)
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> applyDecisions(List<BookingDecisionDto> decisions, Long userId) {
+        log.info("Запрос на пакетное изменение статуса {} бронирований пользователем ID {}",
+                decisions.size(), userId);
+
+        Map<Long, Boolean> decisionById = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (decision.getBookingId() == null || decision.getApproved() == null) {
+                throw new BadRequestException("Для каждого бронирования нужно указать bookingId и approved");
+            }
+            Boolean previous = decisionById.putIfAbsent(decision.getBookingId(), decision.getApproved());
+            if (previous != null && !previous.equals(decision.getApproved())) {
+                log.warn("Противоречивые решения для бронирования ID {}", decision.getBookingId());
+                throw new BadRequestException("Противоречивые решения для бронирования ID "
+                        + decision.getBookingId());
+            }
+        }
+        if (decisionById.size() > MAX_BATCH_SIZE) {
+            log.warn("Передано {} решений, допустимо не более {}", decisionById.size(), MAX_BATCH_SIZE);
+            throw new BadRequestException("Нельзя обработать более " + MAX_BATCH_SIZE + " бронирований за раз");
+        }
+
+        getUser(userId);
+
+        List<Long> ids = new ArrayList<>(decisionById.keySet());
+        Map<Long, BookingOwnership> ownership = bookingRepository.lockOwnershipByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookingOwnership::getId, Function.identity()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(ids.size());
+        List<Long> applicable = new ArrayList<>();
+        List<Long> approvedIds = new ArrayList<>();
+        for (Long id : ids) {
+            BookingOwnership booking = ownership.get(id);
+            BookingDecisionResultDto.Outcome outcome;
+            BookingStatus status = null;
+            if (booking == null) {
+                outcome = BookingDecisionResultDto.Outcome.NOT_FOUND;
+            } else if (!booking.getOwnerId().equals(userId)) {
+                outcome = BookingDecisionResultDto.Outcome.FORBIDDEN;
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                outcome = BookingDecisionResultDto.Outcome.ALREADY_PROCESSED;
+                status = booking.getStatus();
+            } else {
+                outcome = BookingDecisionResultDto.Outcome.APPLIED;
+                applicable.add(id);
+                if (decisionById.get(id)) {
+                    approvedIds.add(id);
+                    status = BookingStatus.APPROVED;
+                } else {
+                    status = BookingStatus.REJECTED;
+                }
+            }
+            results.add(new BookingDecisionResultDto(id, outcome, status));
+        }
+
+        if (!applicable.isEmpty()) {
+            int updated = bookingRepository.applyDecisions(applicable, approvedIds,
+                    BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.WAITING);
+            log.debug("Обновлено {} из {} бронирований одним запросом", updated, applicable.size());
+            eventPublisher.publishEvent(new BookingChangedEvent(applicable));
+            for (Long id : applicable) {
+                BookingOwnership booking = ownership.get(id);
+                boolean approved = decisionById.get(id);
+                outbox.append(approved ? EventType.BOOKING_APPROVED : EventType.BOOKING_REJECTED, id,
+                        bookingPayload(id, booking.getItemId(), booking.getBookerId(), booking.getOwnerId(),
+                                approved ? BookingStatus.APPROVED : BookingStatus.REJECTED,
+                                booking.getStart(), booking.getEnd()));
+            }
+        }
+
+        log.info("Пакетное изменение статуса пользователем ID {}: применено {} из {}",
+                userId, applicable.size(), ids.size());
+        return results;
+    }
+
     private User getUser(Long userId) {
         log.debug("Поиск пользователя с ID {}", userId);
         return userRepository.findById(userId)
@@ -263,6 +415,29 @@ public class BookingServiceImpl implements BookingService {
                 });
     }
 
+    private static Map<String, Object> bookingPayload(Long bookingId, Long itemId, Long bookerId, Long ownerId,
+                                                      BookingStatus status, LocalDateTime start, LocalDateTime end) {
+        return Map.of(
+                "bookingId", bookingId,
+                "itemId", itemId,
+                "bookerId", bookerId,
+                "ownerId", ownerId,
+                "status", status.name(),
+                "start", start.toString(),
+                "end", end.toString());
+    }
+
+    private static BookingSummaryDto toSummary(BookingStateCounts counts) {
+        return BookingSummaryDto.builder()
+                .all(counts.getTotal())
+                .current(counts.getCurrent())
+                .past(counts.getPast())
+                .future(counts.getFuture())
+                .waiting(counts.getWaiting())
+                .rejected(counts.getRejected())
+                .build();
+    }
+
     private BookingDto toDto(Booking booking) {
         log.trace("Преобразование бронирования ID {} в DTO", booking.getId());
 
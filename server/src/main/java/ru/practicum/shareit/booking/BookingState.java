@@ -1,10 +0,0 @@
-package ru.practicum.shareit.booking;
-
-public enum BookingState {
-    ALL,
-    CURRENT,
-    PAST,
-    FUTURE,
-    WAITING,
-    REJECTED
-}
\ No newline at end of file
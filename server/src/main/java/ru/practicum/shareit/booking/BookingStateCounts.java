@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+public interface BookingStateCounts {
+    Long getTotal();
+
+    Long getCurrent();
+
+    Long getPast();
+
+    Long getFuture();
+
+    Long getWaiting();
+
+    Long getRejected();
+}
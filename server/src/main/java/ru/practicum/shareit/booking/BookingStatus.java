@@ -1,8 +0,0 @@
-package ru.practicum.shareit.booking;
-
-public enum BookingStatus {
-    WAITING,
-    APPROVED,
-    REJECTED,
-    CANCELLED
-}
\ No newline at end of file
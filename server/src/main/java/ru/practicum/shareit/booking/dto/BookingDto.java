@@ -1,44 +0,0 @@
-package ru.practicum.shareit.booking.dto;
-
-import com.fasterxml.jackson.annotation.JsonFormat;
-import lombok.*;
-import ru.practicum.shareit.booking.BookingStatus;
-
-import java.time.LocalDateTime;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class BookingDto {
-    private Long id;
-
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime start;
-
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime end;
-
-    private BookingStatus status;
-
-    @Data
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class ItemResponse {
-        private Long id;
-        private String name;
-    }
-
-    @Data
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class BookerResponse {
-        private Long id;
-        private String name;
-    }
-
-    private ItemResponse item;
-    private BookerResponse booker;
-}
\ No newline at end of file
@@ -0,0 +1,300 @@
+package ru.practicum.shareit.booking.partition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Секционирование bookings по start_date (PostgreSQL). Горячие бронирования лежат в помесячных
+ * секциях со своими небольшими индексами; месяцы старше hot-months переносятся внутрь одной секции
+ * bookings_history, которая сама секционирована и остается частью таблицы, поэтому запросы к прошлым
+ * бронированиям работают без изменений. Даты вне созданных секций попадают в bookings_default.
+ * <p>
+ * Строки при обслуживании не копируются: месяц переходит в историю заменой метаданных, а CHECK
+ * с границами секции, проверенный заранее без сильной блокировки, избавляет ATTACH от сканирования.
+ * Сильные блокировки берутся только в коротких транзакциях с lock_timeout; не дождавшись блокировки,
+ * обслуживание повторится при следующем запуске. DETACH ... CONCURRENTLY здесь недоступен: PostgreSQL
+ * не разрешает его при наличии секции по умолчанию.
+ * Все изменения схемы выполняются под транзакционной advisory-блокировкой.
+ */
+@Slf4j
+public class BookingPartitionManager {
+    private static final String PARENT = "bookings";
+    private static final String DEFAULT = "bookings_default";
+    private static final String HISTORY = "bookings_history";
+    private static final String HISTORY_BASE = "bookings_history_base";
+    private static final String MONTH_PREFIX = "bookings_p";
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final long MAINTENANCE_LOCK_KEY = 0x424F4F4B494E47L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingPartitionProperties properties;
+    private final Counter archivedPartitions;
+
+    public BookingPartitionManager(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   BookingPartitionProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.archivedPartitions = Counter.builder("shareit.booking.partitions.archived")
+                .description("Помесячные секции, перенесенные в bookings_history")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Вызывается при старте после обновления схемы Hibernate: обычная таблица bookings
+     * однократно преобразуется в секционированную.
+     */
+    public void initialize() {
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            if (!isPartitioned(PARENT)) {
+                migrate(currentMonth());
+            } else if (!isPartitioned(HISTORY)) {
+                partitionHistory();
+            }
+        });
+        ensurePartitions();
+    }
+
+    public void maintain() {
+        try {
+            ensurePartitions();
+            archive();
+        } catch (DataAccessException e) {
+            log.warn("Не удалось обслужить секции бронирований: {}", e.getMessage());
+        }
+    }
+
+    private void ensurePartitions() {
+        LocalDate month = currentMonth().minusMonths(properties.getHotMonths());
+        LocalDate historyUpper = historyUpperBound().orElse(month);
+        if (historyUpper.isAfter(month)) {
+            month = historyUpper;
+        }
+        LocalDate last = currentMonth().plusMonths(properties.getPremakeMonths());
+        List<String> existing = partitionNames();
+        for (; !month.isAfter(last); month = month.plusMonths(1)) {
+            if (!existing.contains(monthPartition(month))) {
+                LocalDate created = month;
+                transactionTemplate.executeWithoutResult(status -> {
+                    lock();
+                    lockTimeout();
+                    if (!partitionNames().contains(monthPartition(created))) {
+                        createMonthPartition(created);
+                    }
+                });
+            }
+        }
+    }
+
+    private void archive() {
+        LocalDate cutoff = currentMonth().minusMonths(properties.getHotMonths());
+        TreeMap<LocalDate, String> cold = new TreeMap<>();
+        for (String name : partitionNames()) {
+            if (name.startsWith(MONTH_PREFIX)) {
+                LocalDate month = LocalDate.parse(name.substring(MONTH_PREFIX.length()) + "01",
+                        DateTimeFormatter.ofPattern("yyyyMMdd"));
+                if (!month.plusMonths(1).isAfter(cutoff)) {
+                    cold.put(month, name);
+                }
+            }
+        }
+        // По одному месяцу за раз, от старых к новым: граница истории сдвигается непрерывно
+        cold.forEach((month, name) -> {
+            LocalDate upper = month.plusMonths(1);
+            validateBound(name, month, upper);
+            Boolean archived = transactionTemplate.execute(status -> {
+                lock();
+                lockTimeout();
+                if (!partitionNames().contains(name)) {
+                    return false;
+                }
+                // Только метаданные: история и месяц присоединяются без сканирования благодаря CHECK
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + HISTORY);
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + name);
+                jdbcTemplate.execute("ALTER TABLE " + HISTORY + " ATTACH PARTITION " + name
+                        + " FOR VALUES FROM (" + bound(month) + ") TO (" + bound(upper) + ")");
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + HISTORY
+                        + " FOR VALUES FROM (MINVALUE) TO (" + bound(upper) + ")");
+                return true;
+            });
+            if (Boolean.TRUE.equals(archived)) {
+                archivedPartitions.increment();
+                log.info("Секция {} перенесена в {}", name, HISTORY);
+            }
+        });
+    }
+
+    /**
+     * Добавляет секции месяца CHECK с ее границами. Проверка существующих строк идет отдельно
+     * от добавления и держит только SHARE UPDATE EXCLUSIVE, не мешая чтению и записи.
+     */
+    private void validateBound(String name, LocalDate month, LocalDate upper) {
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            lockTimeout();
+            if (boundValidated(name).isEmpty()) {
+                jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_bound "
+                        + boundCheck(month, upper) + " NOT VALID");
+            }
+        });
+        if (!boundValidated(name).orElse(false)) {
+            jdbcTemplate.execute("ALTER TABLE " + name + " VALIDATE CONSTRAINT " + name + "_bound");
+        }
+    }
+
+    private Optional<Boolean> boundValidated(String name) {
+        return jdbcTemplate.queryForList("SELECT convalidated FROM pg_constraint "
+                + "WHERE conrelid = to_regclass(?) AND conname = ?", Boolean.class, name, name + "_bound")
+                .stream().findFirst();
+    }
+
+    /**
+     * Переводит историю, созданную одной обычной таблицей, в секционированную: прежняя таблица
+     * становится ее первой секцией. CHECK с границей истории позволяет обойтись без сканирования.
+     */
+    private void partitionHistory() {
+        LocalDate upper = historyUpperBound().orElseThrow();
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + HISTORY);
+        jdbcTemplate.execute("ALTER TABLE " + HISTORY + " RENAME TO " + HISTORY_BASE);
+        jdbcTemplate.execute("CREATE TABLE " + HISTORY + " (LIKE " + PARENT + " INCLUDING DEFAULTS "
+                + "INCLUDING CONSTRAINTS) PARTITION BY RANGE (start_date)");
+        jdbcTemplate.execute("ALTER TABLE " + HISTORY + " ATTACH PARTITION " + HISTORY_BASE
+                + " FOR VALUES FROM (MINVALUE) TO (" + bound(upper) + ")");
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + HISTORY
+                + " FOR VALUES FROM (MINVALUE) TO (" + bound(upper) + ")");
+        log.info("Секция {} секционирована, прежние строки остались в {}", HISTORY, HISTORY_BASE);
+    }
+
+    private void migrate(LocalDate currentMonth) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + PARENT, Long.class);
+        // Внешние ключи переносятся под прежними именами, чтобы Hibernate находил их при обновлении схемы
+        List<String> foreignKeys = jdbcTemplate.queryForList("SELECT format('ADD CONSTRAINT %I %s', conname, "
+                + "pg_get_constraintdef(oid)) FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'",
+                String.class, PARENT);
+        LocalDate hotStart = currentMonth.minusMonths(properties.getHotMonths());
+        log.info("Преобразование таблицы {} в секционированную по start_date", PARENT);
+
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " RENAME TO bookings_legacy");
+        jdbcTemplate.execute("ALTER TABLE bookings_legacy RENAME CONSTRAINT bookings_pkey TO bookings_legacy_pkey");
+        // Identity на секционированных таблицах появилась только в PostgreSQL 17
+        jdbcTemplate.execute("ALTER TABLE bookings_legacy ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("CREATE SEQUENCE bookings_id_seq START WITH " + (maxId + 1));
+        // Ключ секционирования обязан входить в первичный ключ
+        jdbcTemplate.execute("CREATE TABLE " + PARENT + " (LIKE bookings_legacy INCLUDING DEFAULTS "
+                + "INCLUDING CONSTRAINTS, PRIMARY KEY (id, start_date)) PARTITION BY RANGE (start_date)");
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " ALTER COLUMN id SET DEFAULT nextval('bookings_id_seq')");
+        jdbcTemplate.execute("ALTER SEQUENCE bookings_id_seq OWNED BY " + PARENT + ".id");
+        if (!foreignKeys.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " " + String.join(", ", foreignKeys));
+        }
+        jdbcTemplate.execute("CREATE INDEX idx_bookings_booker_start ON " + PARENT + " (booker_id, start_date)");
+        jdbcTemplate.execute("CREATE INDEX idx_bookings_item_start ON " + PARENT + " (item_id, start_date)");
+
+        jdbcTemplate.execute("CREATE TABLE " + HISTORY + " PARTITION OF " + PARENT
+                + " FOR VALUES FROM (MINVALUE) TO (" + bound(hotStart) + ") PARTITION BY RANGE (start_date)");
+        jdbcTemplate.execute("CREATE TABLE " + HISTORY_BASE + " PARTITION OF " + HISTORY
+                + " FOR VALUES FROM (MINVALUE) TO (" + bound(hotStart) + ")");
+        LocalDate last = currentMonth.plusMonths(properties.getPremakeMonths());
+        for (LocalDate month = hotStart; !month.isAfter(last); month = month.plusMonths(1)) {
+            createMonthPartition(month);
+        }
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT + " PARTITION OF " + PARENT + " DEFAULT");
+
+        int rows = jdbcTemplate.update("INSERT INTO " + PARENT + " SELECT * FROM bookings_legacy");
+        jdbcTemplate.execute("DROP TABLE bookings_legacy");
+        log.info("Таблица {} секционирована, перенесено {} бронирований", PARENT, rows);
+    }
+
+    /**
+     * Секция создается отдельной таблицей с CHECK по границам и присоединяется через ATTACH,
+     * которому на родительской таблице достаточно SHARE UPDATE EXCLUSIVE.
+     */
+    private void createMonthPartition(LocalDate month) {
+        String name = monthPartition(month);
+        LocalDate upper = month.plusMonths(1);
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT + " INCLUDING DEFAULTS "
+                + "INCLUDING CONSTRAINTS)");
+        jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_bound " + boundCheck(month, upper));
+        if (partitionNames().contains(DEFAULT)) {
+            // ATTACH все равно берет ACCESS EXCLUSIVE на секцию по умолчанию; взяв ее заранее, переносим
+            // попавшие туда строки месяца так, что новые не появятся до присоединения. В ней лежат только
+            // даты за пределами созданных секций, поэтому перенос и проверка ATTACH короткие
+            jdbcTemplate.execute("LOCK TABLE " + DEFAULT + " IN ACCESS EXCLUSIVE MODE");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT
+                    + " WHERE start_date >= ? AND start_date < ? RETURNING *) INSERT INTO " + name
+                    + " SELECT * FROM moved", month.atStartOfDay(), upper.atStartOfDay());
+            if (moved > 0) {
+                log.info("Из {} в {} перенесено {} бронирований", DEFAULT, name, moved);
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name
+                + " FOR VALUES FROM (" + bound(month) + ") TO (" + bound(upper) + ")");
+        log.info("Создана секция {} для бронирований с {} по {}", name, month, upper);
+    }
+
+    private boolean isPartitioned(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+                Boolean.class, table));
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = to_regclass(?)", String.class, PARENT);
+    }
+
+    private Optional<LocalDate> historyUpperBound() {
+        List<String> bounds = jdbcTemplate.queryForList("SELECT pg_get_expr(c.relpartbound, c.oid) FROM pg_class c "
+                + "WHERE c.oid = to_regclass(?) AND c.relispartition", String.class, HISTORY);
+        if (bounds.isEmpty()) {
+            return Optional.empty();
+        }
+        Matcher matcher = UPPER_BOUND.matcher(bounds.get(0));
+        return matcher.find()
+                ? Optional.of(LocalDateTime.parse(matcher.group(1), BOUND).toLocalDate())
+                : Optional.empty();
+    }
+
+    private void lock() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, MAINTENANCE_LOCK_KEY);
+    }
+
+    private void lockTimeout() {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = " + properties.getLockTimeout().toMillis());
+    }
+
+    private static LocalDate currentMonth() {
+        return LocalDate.now().withDayOfMonth(1);
+    }
+
+    private static String monthPartition(LocalDate month) {
+        return MONTH_PREFIX + MONTH_SUFFIX.format(month);
+    }
+
+    private static String boundCheck(LocalDate month, LocalDate upper) {
+        return "CHECK (start_date >= " + bound(month) + " AND start_date < " + bound(upper) + ")";
+    }
+
+    private static String bound(LocalDate day) {
+        return "'" + BOUND.format(day.atStartOfDay()) + "'";
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.partition;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking.partitioning")
+public class BookingPartitionProperties {
+    private boolean enabled = false;
+    // Сколько месяцев до текущего остаются в отдельных «горячих» секциях
+    private int hotMonths = 12;
+    // На сколько месяцев вперед секции создаются заранее
+    private int premakeMonths = 3;
+    private Duration maintenanceInterval = Duration.ofHours(1);
+    // Сколько обслуживание ждет сильной блокировки, прежде чем отложить изменение до следующего запуска
+    private Duration lockTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.stream;
+
+import ru.practicum.shareit.outbox.EventType;
+
+import java.util.Map;
+
+/**
+ * Изменение бронирования, отправляемое подписчикам; id — идентификатор события outbox,
+ * он же id события SSE для возобновления по Last-Event-ID.
+ */
+public record BookingStatusEvent(Long id,
+                                 EventType event,
+                                 Long bookingId,
+                                 Long itemId,
+                                 Long bookerId,
+                                 Long ownerId,
+                                 String status) {
+
+    public static BookingStatusEvent from(Long id, EventType event, Map<String, Object> payload) {
+        return new BookingStatusEvent(id, event,
+                longValue(payload, "bookingId"),
+                longValue(payload, "itemId"),
+                longValue(payload, "bookerId"),
+                longValue(payload, "ownerId"),
+                (String) payload.get("status"));
+    }
+
+    public boolean concerns(Long userId) {
+        return userId.equals(bookerId) || userId.equals(ownerId);
+    }
+
+    private static Long longValue(Map<String, Object> payload, String key) {
+        Object value = payload.get(key);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
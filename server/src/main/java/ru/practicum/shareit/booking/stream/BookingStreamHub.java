@@ -0,0 +1,328 @@
+package ru.practicum.shareit.booking.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.outbox.AggregateType;
+import ru.practicum.shareit.outbox.EventType;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Подписки на изменения бронирований. Соединение держит только SseEmitter асинхронного
+ * запроса, поток на время ожидания не занимается. Событие получают арендатор и владелец вещи;
+ * бронирование, удалённое вместе с данными пользователя, приходит событием booking-deleted.
+ * Запись в соединение идёт из очереди подписки в отдельном виртуальном потоке, так что
+ * медленный клиент не задерживает поток рассылки.
+ */
+@Slf4j
+public class BookingStreamHub implements AutoCloseable {
+    private static final int RECENT_IDS = 1024;
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserRepository userRepository;
+    private final BookingStreamProperties properties;
+    private final Counter delivered;
+    private final Counter replayed;
+    private final Counter evicted;
+
+    public BookingStreamHub(OutboxEventRepository outboxEventRepository,
+                            UserRepository userRepository,
+                            BookingStreamProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.userRepository = userRepository;
+        this.properties = properties;
+        Gauge.builder("shareit.booking.stream.connections", connections, AtomicInteger::get)
+                .description("Открытые подписки на изменения бронирований")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("shareit.booking.stream.events")
+                .tag("source", "live")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("shareit.booking.stream.events")
+                .tag("source", "replay")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("shareit.booking.stream.evicted")
+                .description("Подписки, отключённые из-за переполненной очереди или зависшей отправки")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        if (!userRepository.existsById(userId)) {
+            log.error("Пользователь с ID {} не найден при подписке на бронирования", userId);
+            throw new NotFoundException("Пользователь не найден");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscription subscription = new Subscription(userId, emitter, lastEventId);
+        // Подписка регистрируется до чтения истории: события, пришедшие во время
+        // догрузки, откладываются и отправляются после неё без пропусков
+        subscriptions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        connections.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(subscription));
+        log.debug("Пользователь ID {} подписался на бронирования, последнее событие: {}", userId, lastEventId);
+
+        if (lastEventId != null) {
+            replay(subscription, lastEventId);
+        }
+        subscription.finishReplay();
+        return emitter;
+    }
+
+    public void deliver(BookingStatusEvent event) {
+        deliver(event.bookerId(), event);
+        if (!Objects.equals(event.ownerId(), event.bookerId())) {
+            deliver(event.ownerId(), event);
+        }
+    }
+
+    public void heartbeat() {
+        long stuckBefore = System.nanoTime() - properties.getSendTimeout().toNanos();
+        subscriptions.values().forEach(set -> set.forEach(subscription -> {
+            if (!subscription.evictIfStuck(stuckBefore)) {
+                subscription.ping();
+            }
+        }));
+    }
+
+    /**
+     * Досылает всем подписчикам события после последнего отправленного им —
+     * вызывается, когда уведомления между узлами могли быть потеряны.
+     */
+    public void resync() {
+        subscriptions.values().forEach(set -> set.forEach(subscription -> {
+            Long lastSent = subscription.lastEventId();
+            if (lastSent != null) {
+                subscription.beginReplay();
+                replay(subscription, lastSent);
+                subscription.finishReplay();
+            }
+        }));
+    }
+
+    private void deliver(Long userId, BookingStatusEvent event) {
+        if (userId == null) {
+            return;
+        }
+        Set<Subscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions != null) {
+            userSubscriptions.forEach(subscription -> {
+                if (subscription.offer(event)) {
+                    delivered.increment();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        sender.shutdownNow();
+    }
+
+    private void replay(Subscription subscription, Long afterId) {
+        Long oldestRetained = outboxEventRepository.findMinIdByAggregateType(AggregateType.BOOKING);
+        if (oldestRetained == null || oldestRetained > afterId) {
+            // Событие, на котором остановился клиент, уже удалено из outbox вместе с частью истории
+            log.debug("История для пользователя ID {} после события {} уже удалена", subscription.userId, afterId);
+            subscription.reset(outboxEventRepository.findMaxId());
+            return;
+        }
+
+        long cursor = afterId;
+        int scanned = 0;
+        List<OutboxEvent> page;
+        do {
+            page = outboxEventRepository.findByAggregateTypeAndIdGreaterThanOrderById(AggregateType.BOOKING, cursor,
+                    PageRequest.of(0, properties.getReplayBatchSize()));
+            for (OutboxEvent outboxEvent : page) {
+                BookingStatusEvent event = BookingStatusEvent.from(outboxEvent.getId(), outboxEvent.getEventType(),
+                        outboxEvent.getPayload());
+                if (event.concerns(subscription.userId) && subscription.send(event)) {
+                    replayed.increment();
+                }
+                cursor = outboxEvent.getId();
+            }
+            scanned += page.size();
+        } while (page.size() == properties.getReplayBatchSize() && scanned < properties.getReplayScanLimit());
+
+        if (page.size() == properties.getReplayBatchSize()) {
+            // История слишком длинная: клиенту проще перечитать состояние
+            log.debug("История для пользователя ID {} после события {} неполна", subscription.userId, afterId);
+            subscription.reset(outboxEventRepository.findMaxId());
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        Set<Subscription> userSubscriptions = subscriptions.get(subscription.userId);
+        if (userSubscriptions != null && userSubscriptions.remove(subscription)) {
+            connections.decrementAndGet();
+            subscriptions.computeIfPresent(subscription.userId, (id, set) -> set.isEmpty() ? null : set);
+            log.debug("Подписка пользователя ID {} на бронирования закрыта", subscription.userId);
+        }
+    }
+
+    private final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Set<Long> recentIds = new LinkedHashSet<>();
+        private final List<BookingStatusEvent> pending = new ArrayList<>();
+        private final Deque<SseEmitter.SseEventBuilder> outgoing = new ArrayDeque<>();
+        private Long lastEventId;
+        private boolean replaying = true;
+        private boolean closed;
+        private boolean draining;
+        private Future<?> writer;
+        // System.nanoTime() начала текущей записи в соединение, 0 — запись не идёт
+        private long sendingSince;
+
+        private Subscription(Long userId, SseEmitter emitter, Long lastEventId) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.lastEventId = lastEventId;
+        }
+
+        synchronized Long lastEventId() {
+            return lastEventId;
+        }
+
+        synchronized boolean offer(BookingStatusEvent event) {
+            if (replaying) {
+                pending.add(event);
+                return false;
+            }
+            return send(event);
+        }
+
+        synchronized void beginReplay() {
+            replaying = true;
+        }
+
+        synchronized void finishReplay() {
+            replaying = false;
+            pending.forEach(this::send);
+            pending.clear();
+        }
+
+        synchronized boolean send(BookingStatusEvent event) {
+            // Одно событие может прийти и из истории, и вживую
+            if (!recentIds.add(event.id())) {
+                return false;
+            }
+            if (recentIds.size() > RECENT_IDS) {
+                Iterator<Long> oldest = recentIds.iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            lastEventId = lastEventId == null ? event.id() : Math.max(lastEventId, event.id());
+            return enqueue(SseEmitter.event()
+                    .id(String.valueOf(event.id()))
+                    .name(event.event() == EventType.BOOKING_DELETED ? "booking-deleted" : "booking")
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        synchronized void ping() {
+            // Поставленное в очередь событие само поддержит соединение
+            if (outgoing.isEmpty()) {
+                enqueue(SseEmitter.event().comment("ping"));
+            }
+        }
+
+        /**
+         * Просит клиента перечитать состояние; история до {@code upToId} после этого не досылается.
+         */
+        synchronized void reset(Long upToId) {
+            if (upToId != null) {
+                lastEventId = lastEventId == null ? upToId : Math.max(lastEventId, upToId);
+            }
+            enqueue(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+        }
+
+        synchronized boolean evictIfStuck(long stuckBefore) {
+            if (closed || sendingSince == 0 || sendingSince - stuckBefore > 0) {
+                return false;
+            }
+            log.debug("Отправка пользователю ID {} зависла, подписка отключена", userId);
+            evict();
+            return true;
+        }
+
+        private boolean enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return false;
+            }
+            if (outgoing.size() >= properties.getSendQueueCapacity()) {
+                log.debug("Очередь отправки пользователю ID {} переполнена, подписка отключена", userId);
+                evict();
+                return false;
+            }
+            outgoing.add(event);
+            if (!draining) {
+                draining = true;
+                writer = sender.submit(this::drain);
+            }
+            return true;
+        }
+
+        private void evict() {
+            evicted.increment();
+            close();
+            writer.cancel(true);
+            // SseEmitter держит свой монитор на время записи, и complete() ждёт, пока зависшая
+            // запись не упадёт по таймауту контейнера, — поэтому не в потоке рассылки
+            sender.execute(emitter::complete);
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                synchronized (this) {
+                    next = closed ? null : outgoing.poll();
+                    if (next == null) {
+                        sendingSince = 0;
+                        draining = false;
+                        return;
+                    }
+                    sendingSince = System.nanoTime();
+                }
+                try {
+                    emitter.send(next);
+                } catch (IOException | IllegalStateException e) {
+                    // Клиент отключился; Spring завершит запрос и вызовет onError/onCompletion
+                    log.trace("Не удалось отправить событие пользователю ID {}: {}", userId, e.getMessage());
+                    synchronized (this) {
+                        sendingSince = 0;
+                        draining = false;
+                        close();
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            outgoing.clear();
+            pending.clear();
+            remove(this);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking.stream")
+public class BookingStreamProperties {
+    // auto — LISTEN/NOTIFY для PostgreSQL, доставка в пределах процесса для остальных баз
+    private String transport = "auto";
+    private String channel = "shareit_booking_events";
+    private Duration timeout = Duration.ofMinutes(30);
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private int replayBatchSize = 500;
+    private int replayScanLimit = 5000;
+    // Очередь отправки одного подписчика; при переполнении или зависшей отправке он отключается
+    private int sendQueueCapacity = 256;
+    private Duration sendTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.stream;
+
+import ru.practicum.shareit.outbox.AggregateType;
+import ru.practicum.shareit.outbox.DomainEvent;
+import ru.practicum.shareit.outbox.DomainEventHandler;
+
+import java.util.function.Consumer;
+
+/**
+ * Передает события бронирований из шины подписчикам. Шина разбирается одним узлом,
+ * а подписчики распределены по всем, поэтому между узлами событие рассылается через fanout.
+ */
+public class BookingStreamPublisher implements DomainEventHandler, AutoCloseable {
+    private final Consumer<BookingStatusEvent> fanout;
+    private final AutoCloseable listener;
+
+    public BookingStreamPublisher(Consumer<BookingStatusEvent> fanout, AutoCloseable listener) {
+        this.fanout = fanout;
+        this.listener = listener;
+    }
+
+    @Override
+    public String name() {
+        return "booking-stream";
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        if (event.aggregateType() == AggregateType.BOOKING) {
+            fanout.accept(BookingStatusEvent.from(event.id(), event.eventType(), event.payload()));
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (listener != null) {
+            listener.close();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.cache;
+
+public interface CacheInvalidationBus {
+    String transport();
+
+    void publish(InvalidationMessage message);
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class CacheInvalidationHandler {
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final String node;
+
+    public CacheInvalidationHandler(CacheManager cacheManager, MeterRegistry meterRegistry, String node) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.node = node;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void evict(EntityChangedEvent.EntityType type, Long id) {
+        switch (type) {
+            case USER -> {
+                evict(CacheNames.USERS, id);
+                // В результатах поиска лежат комментарии с именами авторов
+                clear(CacheNames.ITEM_SEARCH);
+            }
+            // Результаты поиска зависят от названия, описания и комментариев, поэтому сбрасываются целиком
+            case ITEM -> clear(CacheNames.ITEM_SEARCH);
+            default -> log.warn("Неизвестный тип сущности для инвалидации: {}", type);
+        }
+    }
+
+    public void onMessage(InvalidationMessage message, String transport) {
+        String origin = node.equals(message.getNode()) ? "self" : "remote";
+        // Задержка между узлами включает расхождение их часов
+        long latencyMicros = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now()) - message.getPublishedAtMicros();
+        Timer.builder("shareit.cache.invalidation.latency")
+                .description("Время от фиксации изменения до сброса кэша на узле")
+                .tag("transport", transport)
+                .tag("origin", origin)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Math.max(0, latencyMicros), TimeUnit.MICROSECONDS);
+        Counter.builder("shareit.cache.invalidations")
+                .tag("entity", message.getType().name().toLowerCase())
+                .tag("origin", origin)
+                .register(meterRegistry)
+                .increment();
+        log.debug("Получено сообщение инвалидации {} {} от узла {}", message.getType(), message.getId(),
+                message.getNode());
+        evict(message.getType(), message.getId());
+    }
+
+    public void evictAll() {
+        cacheManager.getCacheNames().forEach(this::clear);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
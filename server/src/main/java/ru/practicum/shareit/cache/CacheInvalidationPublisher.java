@@ -0,0 +1,34 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * После фиксации транзакции сбрасывает кэш на своем узле сразу, чтобы сохранить
+ * «чтение своих записей», и рассылает сообщение остальным узлам через шину.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+    private final CacheInvalidationHandler handler;
+    private final CacheInvalidationBus bus;
+
+    public CacheInvalidationPublisher(CacheInvalidationHandler handler, CacheInvalidationBus bus) {
+        this.handler = handler;
+        this.bus = bus;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        handler.evict(event.getType(), event.getId());
+        try {
+            bus.publish(new InvalidationMessage(event.getType(), event.getId(), handler.getNode(),
+                    ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now())));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось разослать инвалидацию {} {}: {}", event.getType(), event.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.cache;
+
+public final class CacheNames {
+    public static final String USERS = "users";
+    public static final String ITEM_SEARCH = "itemSearch";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Value;
+
+/**
+ * Публикуется сервисами внутри транзакции; кэши сбрасываются только после ее фиксации.
+ */
+@Value
+public class EntityChangedEvent {
+    EntityType type;
+    Long id;
+
+    public enum EntityType {
+        USER,
+        ITEM
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.cache;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Замена LISTEN/NOTIFY для H2 и тестов: сообщения доставляются асинхронно в пределах
+ * одного процесса, как если бы они пришли от другого узла.
+ */
+public class InMemoryCacheInvalidationBus implements CacheInvalidationBus, AutoCloseable {
+    private final CacheInvalidationHandler handler;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InMemoryCacheInvalidationBus(CacheInvalidationHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public String transport() {
+        return "in-memory";
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        executor.execute(() -> handler.onMessage(message, transport()));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
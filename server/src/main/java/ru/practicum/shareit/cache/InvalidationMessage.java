@@ -0,0 +1,28 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Value;
+
+/**
+ * Сообщение шины инвалидации в компактном текстовом виде «тип:id:узел:время публикации в мкс»,
+ * чтобы уместиться в ограничение NOTIFY на размер payload.
+ */
+@Value
+public class InvalidationMessage {
+    EntityChangedEvent.EntityType type;
+    Long id;
+    String node;
+    long publishedAtMicros;
+
+    public String encode() {
+        return type + ":" + id + ":" + node + ":" + publishedAtMicros;
+    }
+
+    public static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split(":", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Некорректное сообщение инвалидации: " + payload);
+        }
+        return new InvalidationMessage(EntityChangedEvent.EntityType.valueOf(parts[0]),
+                Long.valueOf(parts[1]), parts[2], Long.parseLong(parts[3]));
+    }
+}
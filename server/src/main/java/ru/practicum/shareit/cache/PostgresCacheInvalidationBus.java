@@ -0,0 +1,40 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.datasource.PostgresChannelListener;
+
+/**
+ * Публикация через pg_notify; канал слушается на отдельном соединении, после потери
+ * которого кэши сбрасываются целиком.
+ */
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus, AutoCloseable {
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationHandler handler;
+    private final String channel;
+    private final PostgresChannelListener listener;
+
+    public PostgresCacheInvalidationBus(JdbcTemplate jdbcTemplate, CacheInvalidationHandler handler, String channel,
+                                        String url, String username, String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.handler = handler;
+        this.channel = channel;
+        this.listener = new PostgresChannelListener(channel, url, username, password,
+                payload -> handler.onMessage(InvalidationMessage.decode(payload), transport()),
+                handler::evictAll);
+    }
+
+    @Override
+    public String transport() {
+        return "postgres";
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, channel, message.encode());
+    }
+
+    @Override
+    public void close() {
+        listener.close();
+    }
+}
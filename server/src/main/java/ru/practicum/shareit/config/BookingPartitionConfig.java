@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.partition.BookingPartitionManager;
+import ru.practicum.shareit.booking.partition.BookingPartitionProperties;
+
+@Configuration
+@EnableConfigurationProperties(BookingPartitionProperties.class)
+@ConditionalOnProperty(prefix = "shareit.booking.partitioning", name = "enabled", havingValue = "true")
+public class BookingPartitionConfig {
+
+    // EntityManagerFactory в параметрах гарантирует, что Hibernate уже обновил схему
+    @Bean
+    public BookingPartitionManager bookingPartitionManager(JdbcTemplate jdbcTemplate,
+                                                           PlatformTransactionManager transactionManager,
+                                                           EntityManagerFactory entityManagerFactory,
+                                                           DataSourceProperties dataSourceProperties,
+                                                           BookingPartitionProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        if (!dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:")) {
+            throw new IllegalStateException("Секционирование бронирований поддерживается только в PostgreSQL");
+        }
+        BookingPartitionManager manager = new BookingPartitionManager(jdbcTemplate,
+                new TransactionTemplate(transactionManager), properties, meterRegistry);
+        manager.initialize();
+        return manager;
+    }
+
+    @Bean
+    public SchedulingConfigurer bookingPartitionScheduling(BookingPartitionManager manager,
+                                                           BookingPartitionProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(manager::maintain, properties.getMaintenanceInterval());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import ru.practicum.shareit.booking.stream.BookingStatusEvent;
+import ru.practicum.shareit.booking.stream.BookingStreamHub;
+import ru.practicum.shareit.booking.stream.BookingStreamProperties;
+import ru.practicum.shareit.booking.stream.BookingStreamPublisher;
+import ru.practicum.shareit.datasource.PostgresChannelListener;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.UncheckedIOException;
+
+@Configuration
+@EnableConfigurationProperties(BookingStreamProperties.class)
+public class BookingStreamConfig {
+
+    @Bean
+    public BookingStreamHub bookingStreamHub(OutboxEventRepository outboxEventRepository,
+                                             UserRepository userRepository,
+                                             BookingStreamProperties properties,
+                                             MeterRegistry meterRegistry) {
+        return new BookingStreamHub(outboxEventRepository, userRepository, properties, meterRegistry);
+    }
+
+    // На PostgreSQL событие рассылается всем узлам через pg_notify, включая отправителя
+    @Bean
+    public BookingStreamPublisher bookingStreamPublisher(BookingStreamHub hub,
+                                                         BookingStreamProperties properties,
+                                                         JdbcTemplate jdbcTemplate,
+                                                         ObjectMapper objectMapper,
+                                                         DataSourceProperties dataSourceProperties) {
+        String transport = properties.getTransport();
+        boolean postgres = "postgres".equals(transport)
+                || ("auto".equals(transport) && dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:"));
+        if (!postgres) {
+            return new BookingStreamPublisher(hub::deliver, null);
+        }
+
+        PostgresChannelListener listener = new PostgresChannelListener(properties.getChannel(),
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                payload -> hub.deliver(read(objectMapper, payload)),
+                hub::resync);
+        return new BookingStreamPublisher(event -> jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null,
+                properties.getChannel(), write(objectMapper, event)), listener);
+    }
+
+    @Bean
+    public SchedulingConfigurer bookingStreamHeartbeatScheduling(BookingStreamHub hub,
+                                                                 BookingStreamProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(hub::heartbeat, properties.getHeartbeatInterval());
+    }
+
+    private static BookingStatusEvent read(ObjectMapper objectMapper, String payload) {
+        try {
+            return objectMapper.readValue(payload, BookingStatusEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String write(ObjectMapper objectMapper, BookingStatusEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
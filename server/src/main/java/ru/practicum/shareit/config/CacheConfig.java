@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.CacheInvalidationHandler;
+import ru.practicum.shareit.cache.CacheInvalidationPublisher;
+import ru.practicum.shareit.cache.InMemoryCacheInvalidationBus;
+import ru.practicum.shareit.cache.PostgresCacheInvalidationBus;
+
+import java.util.UUID;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheInvalidationHandler cacheInvalidationHandler(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        return new CacheInvalidationHandler(cacheManager, meterRegistry, UUID.randomUUID().toString());
+    }
+
+    // auto выбирает LISTEN/NOTIFY для PostgreSQL и внутрипроцессную шину для остальных баз
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(
+            @Value("${shareit.cache.invalidation.transport:auto}") String transport,
+            @Value("${shareit.cache.invalidation.channel:shareit_cache}") String channel,
+            CacheInvalidationHandler handler,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties) {
+        boolean postgres = "postgres".equals(transport)
+                || ("auto".equals(transport) && dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:"));
+        if (postgres) {
+            return new PostgresCacheInvalidationBus(jdbcTemplate, handler, channel,
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword());
+        }
+        return new InMemoryCacheInvalidationBus(handler);
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(CacheInvalidationHandler handler,
+                                                                 CacheInvalidationBus bus) {
+        return new CacheInvalidationPublisher(handler, bus);
+    }
+}
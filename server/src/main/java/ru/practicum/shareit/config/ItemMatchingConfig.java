@@ -0,0 +1,42 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.AggregateType;
+import ru.practicum.shareit.outbox.OutboxCatchUp;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
+import ru.practicum.shareit.outbox.OutboxProperties;
+import ru.practicum.shareit.request.matching.ItemMatcher;
+import ru.practicum.shareit.request.matching.ItemMatchingProperties;
+import ru.practicum.shareit.sql.StreamingQueries;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(ItemMatchingProperties.class)
+public class ItemMatchingConfig {
+
+    @Bean
+    public ItemMatcher itemMatcher(OutboxEventRepository outboxEventRepository,
+                                   DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   OutboxProperties outboxProperties,
+                                   ItemMatchingProperties properties,
+                                   MeterRegistry meterRegistry) {
+        return new ItemMatcher(
+                new OutboxCatchUp(outboxEventRepository, AggregateType.ITEM, properties.getFullRebuildInterval(),
+                        outboxProperties),
+                new StreamingQueries(dataSource, properties.getFetchSize(), properties.getBatchSize()),
+                new TransactionTemplate(transactionManager), properties, meterRegistry);
+    }
+
+    @Bean
+    public SchedulingConfigurer itemMatchingScheduling(ItemMatcher matcher, ItemMatchingProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(matcher::refresh, properties.getRefreshInterval());
+    }
+}
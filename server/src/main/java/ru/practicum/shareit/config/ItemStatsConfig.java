@@ -0,0 +1,54 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.stats.ItemStatsJob;
+import ru.practicum.shareit.item.stats.ItemStatsProperties;
+import ru.practicum.shareit.item.stats.ItemStatsRepository;
+import ru.practicum.shareit.item.stats.ItemStatsWatermarkRepository;
+import ru.practicum.shareit.outbox.AggregateType;
+import ru.practicum.shareit.outbox.OutboxCatchUp;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
+import ru.practicum.shareit.outbox.OutboxProperties;
+import ru.practicum.shareit.sql.StreamingQueries;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(ItemStatsProperties.class)
+public class ItemStatsConfig {
+
+    @Bean
+    public ItemStatsJob itemStatsJob(ItemStatsRepository itemStatsRepository,
+                                     ItemStatsWatermarkRepository watermarkRepository,
+                                     OutboxEventRepository outboxEventRepository,
+                                     EntityManager entityManager,
+                                     DataSource dataSource,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     DataSourceProperties dataSourceProperties,
+                                     OutboxProperties outboxProperties,
+                                     ItemStatsProperties properties,
+                                     MeterRegistry meterRegistry) {
+        boolean postgres = dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+        return new ItemStatsJob(itemStatsRepository, watermarkRepository,
+                new OutboxCatchUp(outboxEventRepository, AggregateType.BOOKING, properties.getFullRebuildInterval(),
+                        outboxProperties),
+                new StreamingQueries(dataSource, properties.getFetchSize(), properties.getBatchSize()),
+                entityManager, jdbcTemplate, new TransactionTemplate(transactionManager), postgres,
+                properties, meterRegistry);
+    }
+
+    @Bean
+    public SchedulingConfigurer itemStatsScheduling(ItemStatsJob job, ItemStatsProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(job::run, properties.getInterval());
+    }
+}
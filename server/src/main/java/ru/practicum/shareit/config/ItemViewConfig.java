@@ -0,0 +1,25 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import ru.practicum.shareit.item.ItemViewProjector;
+import ru.practicum.shareit.item.ItemViewProperties;
+import ru.practicum.shareit.item.ItemViewRefresher;
+
+@Configuration
+@EnableConfigurationProperties(ItemViewProperties.class)
+public class ItemViewConfig {
+
+    @Bean
+    public ItemViewRefresher itemViewRefresher(ItemViewProjector projector, ItemViewProperties properties) {
+        return new ItemViewRefresher(projector, properties);
+    }
+
+    @Bean
+    public SchedulingConfigurer itemViewRefreshScheduling(ItemViewRefresher refresher,
+                                                          ItemViewProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(refresher::refresh, properties.getRefreshInterval());
+    }
+}
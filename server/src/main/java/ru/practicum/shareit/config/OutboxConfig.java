@@ -0,0 +1,66 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.DomainEventHandler;
+import ru.practicum.shareit.outbox.EventBus;
+import ru.practicum.shareit.outbox.OutboxDispatcher;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
+import ru.practicum.shareit.outbox.OutboxProperties;
+import ru.practicum.shareit.outbox.OutboxSchema;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    public EventBus eventBus(ObjectProvider<DomainEventHandler> handlers,
+                             OutboxProperties properties,
+                             MeterRegistry meterRegistry) {
+        return new EventBus(handlers.orderedStream().toList(), properties.getLanes(),
+                properties.getLaneCapacity(), meterRegistry);
+    }
+
+    // EntityManagerFactory в параметрах гарантирует, что Hibernate уже обновил схему
+    @Bean
+    public OutboxSchema outboxSchema(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     EntityManagerFactory entityManagerFactory,
+                                     DataSourceProperties dataSourceProperties) {
+        OutboxSchema schema = new OutboxSchema(jdbcTemplate, new TransactionTemplate(transactionManager));
+        if (dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:")) {
+            schema.update();
+        }
+        return schema;
+    }
+
+    @Bean
+    public OutboxDispatcher outboxDispatcher(OutboxEventRepository outboxEventRepository,
+                                             EventBus eventBus,
+                                             PlatformTransactionManager transactionManager,
+                                             JdbcTemplate jdbcTemplate,
+                                             DataSourceProperties dataSourceProperties,
+                                             OutboxProperties properties,
+                                             MeterRegistry meterRegistry) {
+        boolean postgres = dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+        return new OutboxDispatcher(outboxEventRepository, eventBus, new TransactionTemplate(transactionManager),
+                jdbcTemplate, postgres, properties, meterRegistry);
+    }
+
+    @Bean
+    public SchedulingConfigurer outboxScheduling(OutboxDispatcher dispatcher, OutboxProperties properties) {
+        return registrar -> {
+            registrar.addFixedDelayTask(dispatcher::dispatch, properties.getPollInterval());
+            registrar.addFixedDelayTask(dispatcher::purge, properties.getPurgeInterval());
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import ru.practicum.shareit.datasource.DataSourcePools;
+import ru.practicum.shareit.datasource.ReplicaHealthChecker;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.datasource.ReplicaState;
+import ru.practicum.shareit.datasource.RoutingDataSourceProperties;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@ConditionalOnProperty(prefix = "shareit.datasource.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public DataSourcePools dataSourcePools(DataSourceProperties dataSourceProperties,
+                                           RoutingDataSourceProperties properties,
+                                           Environment environment,
+                                           MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        List<ReplicaState> replicas = properties.getReplicas().stream()
+                .map(replica -> {
+                    HikariDataSource dataSource = new HikariDataSource();
+                    dataSource.setPoolName("shareit-" + replica.getName());
+                    dataSource.setJdbcUrl(replica.getUrl());
+                    dataSource.setUsername(replica.getUsername());
+                    dataSource.setPassword(replica.getPassword());
+                    dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+                    dataSource.setReadOnly(true);
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                    return new ReplicaState(replica.getName(), dataSource);
+                })
+                .toList();
+        return new DataSourcePools(primary, replicas);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(DataSourcePools pools,
+                                                     RoutingDataSourceProperties properties,
+                                                     MeterRegistry meterRegistry) {
+        return new ReplicaHealthChecker(pools.getReplicas(), properties, meterRegistry);
+    }
+
+    @Bean
+    public SchedulingConfigurer replicaHealthCheckScheduling(ReplicaHealthChecker checker,
+                                                             RoutingDataSourceProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(checker::check, properties.getCheckInterval());
+    }
+
+    // LazyConnectionDataSourceProxy откладывает выбор пула до первого запроса,
+    // когда признак readOnly транзакции уже выставлен
+    @Bean
+    public DataSource dataSource(DataSourcePools pools, MeterRegistry meterRegistry) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY, pools.getPrimary());
+        pools.getReplicas().forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(pools.getReplicas(), meterRegistry);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(pools.getPrimary());
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
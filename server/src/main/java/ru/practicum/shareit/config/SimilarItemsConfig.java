@@ -0,0 +1,43 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.similar.SimilarItemsProperties;
+import ru.practicum.shareit.item.similar.SimilarItemsRecommender;
+import ru.practicum.shareit.outbox.AggregateType;
+import ru.practicum.shareit.outbox.OutboxCatchUp;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
+import ru.practicum.shareit.outbox.OutboxProperties;
+import ru.practicum.shareit.sql.StreamingQueries;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SimilarItemsProperties.class)
+public class SimilarItemsConfig {
+
+    @Bean
+    public SimilarItemsRecommender similarItemsRecommender(OutboxEventRepository outboxEventRepository,
+                                                           DataSource dataSource,
+                                                           PlatformTransactionManager transactionManager,
+                                                           OutboxProperties outboxProperties,
+                                                           SimilarItemsProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        return new SimilarItemsRecommender(
+                new OutboxCatchUp(outboxEventRepository, AggregateType.BOOKING, properties.getFullRebuildInterval(),
+                        outboxProperties),
+                new StreamingQueries(dataSource, properties.getFetchSize(), properties.getBatchSize()),
+                new TransactionTemplate(transactionManager), properties, meterRegistry);
+    }
+
+    @Bean
+    public SchedulingConfigurer similarItemsScheduling(SimilarItemsRecommender recommender,
+                                                       SimilarItemsProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(recommender::refresh, properties.getRefreshInterval());
+    }
+}
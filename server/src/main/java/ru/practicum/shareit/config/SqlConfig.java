@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.sql.*;
+
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties({SqlBudgetProperties.class, SlowQueryProperties.class})
+public class SqlConfig implements WebMvcConfigurer {
+    private final SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    @Bean
+    public static SqlProxyPostProcessor sqlProxyPostProcessor(ObjectProvider<SlowQueryProperties> properties,
+                                                              ObjectProvider<SlowQueryLog> slowQueryLog,
+                                                              ObjectProvider<QueryPlanCollector> planCollector,
+                                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SqlProxyPostProcessor(properties, slowQueryLog, planCollector, meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(SqlStatementInspector inspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlBudgetInterceptor)
+                .excludePathPatterns("/actuator/**");
+    }
+}
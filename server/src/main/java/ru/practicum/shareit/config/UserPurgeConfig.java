@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.user.purge.UserPurgeProperties;
+import ru.practicum.shareit.user.purge.UserPurgeRepository;
+import ru.practicum.shareit.user.purge.UserPurger;
+
+@Configuration
+@EnableConfigurationProperties(UserPurgeProperties.class)
+public class UserPurgeConfig {
+
+    @Bean
+    public UserPurger userPurger(UserPurgeRepository repository,
+                                 Outbox outbox,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 UserPurgeProperties properties,
+                                 MeterRegistry meterRegistry) {
+        return new UserPurger(repository, outbox, eventPublisher, new TransactionTemplate(transactionManager),
+                properties, meterRegistry);
+    }
+
+    // Задержка до следующего запуска зависит от того, осталась ли работа
+    @Bean
+    public SchedulingConfigurer userPurgeScheduling(UserPurger purger) {
+        return registrar -> registrar.addTriggerTask(purger::run, purger::nextExecution);
+    }
+}
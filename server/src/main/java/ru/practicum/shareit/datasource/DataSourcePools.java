@@ -0,0 +1,33 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * Основной пул и пулы реплик. Сами пулы не регистрируются как бины DataSource,
+ * чтобы наружу был виден только маршрутизирующий источник.
+ */
+public class DataSourcePools implements AutoCloseable {
+    private final HikariDataSource primary;
+    private final List<ReplicaState> replicas;
+
+    public DataSourcePools(HikariDataSource primary, List<ReplicaState> replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<ReplicaState> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> ((HikariDataSource) replica.getDataSource()).close());
+        primary.close();
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+/**
+ * Прослушивание канала LISTEN/NOTIFY на отдельном соединении вне пула: соединение
+ * живет все время работы узла и не должно занимать место в пуле. После переподключения
+ * вызывается onReconnect — пока соединения не было, уведомления могли быть потеряны.
+ */
+@Slf4j
+public class PostgresChannelListener implements AutoCloseable {
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 2000;
+
+    private final String channel;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Consumer<String> onMessage;
+    private final Runnable onReconnect;
+    private final Thread listener;
+    private volatile boolean running = true;
+
+    public PostgresChannelListener(String channel, String url, String username, String password,
+                                   Consumer<String> onMessage, Runnable onReconnect) {
+        this.channel = channel;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.onMessage = onMessage;
+        this.onReconnect = onReconnect;
+        this.listener = new Thread(this::listen, "pg-listener-" + channel);
+        this.listener.setDaemon(true);
+        this.listener.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        listener.interrupt();
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Подписка на канал {} установлена", channel);
+                if (reconnect) {
+                    onReconnect.run();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Соединение для канала {} потеряно, переподключение: {}", channel, e.getMessage());
+                reconnect = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        try {
+            onMessage.accept(payload);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обработать уведомление канала {} '{}': {}", channel, payload, e.getMessage());
+        }
+    }
+}
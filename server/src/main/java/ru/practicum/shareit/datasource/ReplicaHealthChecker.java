@@ -0,0 +1,67 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+@Slf4j
+public class ReplicaHealthChecker {
+    private static final String POSTGRES_LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<ReplicaState> replicas;
+    private final RoutingDataSourceProperties properties;
+
+    public ReplicaHealthChecker(List<ReplicaState> replicas, RoutingDataSourceProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.properties = properties;
+        for (ReplicaState replica : replicas) {
+            Gauge.builder("shareit.datasource.replica.lag", replica, ReplicaState::getLagSeconds)
+                    .tag("replica", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("shareit.datasource.replica.healthy", replica, state -> state.isHealthy() ? 1 : 0)
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+        check();
+    }
+
+    public void check() {
+        double maxLag = properties.getMaxLag().toMillis() / 1000.0;
+        for (ReplicaState replica : replicas) {
+            try {
+                double lag = measureLag(replica);
+                boolean healthy = lag <= maxLag;
+                if (replica.isHealthy() != healthy) {
+                    log.warn("Реплика {} {}: отставание {} с", replica.getName(),
+                            healthy ? "возвращена в ротацию" : "исключена из ротации", lag);
+                }
+                replica.update(healthy, lag);
+            } catch (SQLException e) {
+                if (replica.isHealthy()) {
+                    log.warn("Реплика {} недоступна и исключена из ротации: {}", replica.getName(), e.getMessage());
+                }
+                replica.update(false, replica.getLagSeconds());
+            }
+        }
+    }
+
+    private double measureLag(ReplicaState replica) throws SQLException {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            try (ResultSet resultSet = statement.executeQuery(postgres ? POSTGRES_LAG_QUERY : "SELECT 0")) {
+                return resultSet.next() ? resultSet.getDouble(1) : 0;
+            }
+        }
+    }
+}
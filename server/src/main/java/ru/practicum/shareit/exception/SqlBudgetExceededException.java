@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class SqlBudgetExceededException extends RuntimeException {
+    public SqlBudgetExceededException(String endpoint, int limit) {
+        super("Превышен лимит SQL-запросов (" + limit + ") для " + endpoint);
+    }
+}
@@ -9,7 +9,10 @@ import ru.practicum.shareit.user.User;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = {
+        @Index(name = "idx_items_owner", columnList = "owner_id"),
+        @Index(name = "idx_items_request", columnList = "request_id")
+})
 public class Item {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
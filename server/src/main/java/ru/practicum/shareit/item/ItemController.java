@@ -6,6 +6,9 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.*;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemStatsDto;
+import ru.practicum.shareit.item.dto.SimilarItemDto;
+import ru.practicum.shareit.item.similar.SimilarItemsRecommender;
 
 import java.util.List;
 
@@ -14,6 +17,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final SimilarItemsRecommender similarItemsRecommender;
 
     @PostMapping
     public ResponseEntity<ItemDto> addItem(
@@ -40,6 +44,30 @@ public class ItemController {
         return ResponseEntity.ok(item);
     }
 
+    @GetMapping("/{itemId}/stats")
+    public ResponseEntity<ItemStatsDto> getItemStats(
+            @PathVariable Long itemId,
+            @RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+        ItemStatsDto stats = itemService.getItemStats(itemId, userId);
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/{itemId}/similar")
+    public ResponseEntity<List<SimilarItemDto>> getSimilarItems(
+            @PathVariable Long itemId,
+            @RequestParam(defaultValue = "10") Integer size) {
+        List<SimilarItemDto> items = similarItemsRecommender.findSimilar(itemId, size);
+        return ResponseEntity.ok(items);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ItemDto>> getItemsByIds(
+            @RequestHeader(value = "X-Sharer-User-Id") Long userId,
+            @RequestParam List<Long> ids) {
+        List<ItemDto> items = itemService.getItemsByIds(ids, userId);
+        return ResponseEntity.ok(items);
+    }
+
     @GetMapping
     public ResponseEntity<List<ItemDto>> getItemsByOwner(
             @RequestHeader(value = "X-Sharer-User-Id") Long userId) {
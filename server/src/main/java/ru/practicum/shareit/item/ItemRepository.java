@@ -1,24 +1,54 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Вещи пользователей, помеченных удалёнными, не видны через репозиторий, как и сами
+ * пользователи: до окончания фоновой очистки их нельзя найти, прочитать или забронировать.
+ */
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query("SELECT i FROM Item i WHERE i.owner.id = :ownerId ORDER BY i.id")
-    List<Item> findByOwnerIdOrderById(Long ownerId);
+    @Override
+    @Query("SELECT i FROM Item i WHERE i.id = :id AND i.owner.deletedAt IS NULL")
+    Optional<Item> findById(Long id);
+
+    @Override
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids AND i.owner.deletedAt IS NULL")
+    List<Item> findAllById(Iterable<Long> ids);
 
     @Query("SELECT i FROM Item i " +
-           "WHERE i.available = true " +
+           "WHERE i.available = true AND i.owner.deletedAt IS NULL " +
            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
     List<Item> searchAvailableItems(String text);
 
+    @Query("SELECT new ru.practicum.shareit.item.ItemWithView(i, v) FROM Item i " +
+           "LEFT JOIN ItemView v ON v.itemId = i.id WHERE i.id = :itemId AND i.owner.deletedAt IS NULL")
+    Optional<ItemWithView> findWithViewById(Long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.item.ItemWithView(i, v) FROM Item i " +
+           "LEFT JOIN ItemView v ON v.itemId = i.id WHERE i.owner.id = :ownerId AND i.owner.deletedAt IS NULL " +
+           "ORDER BY i.id")
+    List<ItemWithView> findWithViewByOwnerId(Long ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.item.ItemWithView(i, v) FROM Item i " +
+           "LEFT JOIN ItemView v ON v.itemId = i.id WHERE i.id IN :itemIds AND i.owner.deletedAt IS NULL")
+    List<ItemWithView> findWithViewByIdIn(List<Long> itemIds);
+
+    @Query("SELECT i.id FROM Item i WHERE NOT EXISTS " +
+           "(SELECT 1 FROM ItemView v WHERE v.itemId = i.id) ORDER BY i.id")
+    List<Long> findIdsWithoutView(Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE i.requestId IN :requestIds AND i.owner.deletedAt IS NULL")
     List<Item> findByRequestIdIn(List<Long> requestIds);
 
+    @Query("SELECT i FROM Item i WHERE i.requestId = :requestId AND i.owner.deletedAt IS NULL")
     List<Item> findByRequestId(Long requestId);
 }
\ No newline at end of file
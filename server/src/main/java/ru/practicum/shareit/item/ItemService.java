@@ -12,8 +12,12 @@ public interface ItemService {
 
     ItemDto getItemById(Long itemId, Long userId);
 
+    ItemStatsDto getItemStats(Long itemId, Long userId);
+
     List<ItemDto> getItemsByOwner(Long userId);
 
+    List<ItemDto> getItemsByIds(List<Long> itemIds, Long userId);
+
     List<ItemDto> searchItems(String text);
 
     CommentDto addComment(Long itemId, CommentRequestDto commentRequestDto, Long userId);
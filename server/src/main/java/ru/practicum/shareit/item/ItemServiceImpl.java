@@ -1,29 +1,48 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.*;
+import ru.practicum.shareit.cache.CacheNames;
+import ru.practicum.shareit.cache.EntityChangedEvent;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.comment.*;
 import ru.practicum.shareit.item.comment.dto.*;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.stats.ItemStats;
+import ru.practicum.shareit.item.stats.ItemStatsRepository;
+import ru.practicum.shareit.outbox.EventType;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.*;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemViewRepository itemViewRepository;
+    private final ItemViewProjector itemViewProjector;
+    private final ItemStatsRepository itemStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Outbox outbox;
 
     @Override
     @Transactional
@@ -63,10 +82,13 @@ public class ItemServiceImpl implements ItemService {
                 .build();
 
         Item savedItem = itemRepository.save(item);
+        ItemView view = itemViewRepository.save(ItemView.empty(savedItem.getId(), LocalDateTime.now()));
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.ITEM, savedItem.getId()));
+        outbox.append(EventType.ITEM_CREATED, savedItem.getId(), itemPayload(savedItem));
         log.info("Вещь успешно добавлена с ID: {}, название: {}, владелец: {}",
                 savedItem.getId(), savedItem.getName(), savedItem.getOwner().getId());
 
-        return toItemDtoWithBookingsAndComments(savedItem, userId);
+        return toItemDto(new ItemWithView(savedItem, view), userId);
     }
 
     @Override
@@ -118,23 +140,46 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.ITEM, itemId));
+        outbox.append(EventType.ITEM_UPDATED, itemId, itemPayload(updatedItem));
         log.info("Вещь ID: {} успешно обновлена пользователем ID: {}", itemId, userId);
 
-        return toItemDtoWithBookingsAndComments(updatedItem, userId);
+        ItemView view = itemViewRepository.findById(itemId).orElse(null);
+        return toItemDto(new ItemWithView(updatedItem, view), userId);
     }
 
     @Override
     public ItemDto getItemById(Long itemId, Long userId) {
         log.debug("Запрос на получение вещи ID: {} пользователем ID: {}", itemId, userId);
 
-        Item item = itemRepository.findById(itemId)
+        ItemWithView item = itemRepository.findWithViewById(itemId)
                 .orElseThrow(() -> {
                     log.error("Вещь с ID {} не найдена", itemId);
                     return new NotFoundException("Вещь с ID " + itemId + " не найдена");
                 });
 
         log.info("Вещь ID: {} успешно получена пользователем ID: {}", itemId, userId);
-        return toItemDtoWithBookingsAndComments(item, userId);
+        return toItemDto(item, userId);
+    }
+
+    @Override
+    public ItemStatsDto getItemStats(Long itemId, Long userId) {
+        log.debug("Запрос статистики вещи ID: {} пользователем ID: {}", itemId, userId);
+
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> {
+                    log.error("Вещь с ID {} не найдена", itemId);
+                    return new NotFoundException("Вещь с ID " + itemId + " не найдена");
+                });
+        if (!item.getOwner().getId().equals(userId)) {
+            log.warn("Пользователь ID: {} запросил статистику чужой вещи ID: {}", userId, itemId);
+            throw new NotFoundException("Вещь с ID " + itemId + " не найдена");
+        }
+
+        // До первого пересчёта у вещи нет строки статистики
+        return itemStatsRepository.findById(itemId)
+                .map(ItemStats::toDto)
+                .orElseGet(() -> ItemStatsDto.builder().itemId(itemId).build());
     }
 
     @Override
@@ -143,18 +188,38 @@ public class ItemServiceImpl implements ItemService {
 
         getUser(userId);
 
-        List<Item> items = itemRepository.findByOwnerIdOrderById(userId);
+        List<ItemWithView> items = itemRepository.findWithViewByOwnerId(userId);
         log.debug("Найдено {} вещей для владельца ID: {}", items.size(), userId);
 
-        List<ItemDto> result = items.stream()
-                .map(item -> toItemDtoWithBookingsAndComments(item, userId))
-                .collect(Collectors.toList());
+        List<ItemDto> result = toItemDtos(items, userId);
 
         log.info("Возвращено {} вещей для владельца ID: {}", result.size(), userId);
         return result;
     }
 
     @Override
+    public List<ItemDto> getItemsByIds(List<Long> itemIds, Long userId) {
+        log.info("Запрос на получение {} вещей по списку ID пользователем ID: {}", itemIds.size(), userId);
+
+        List<Long> uniqueIds = itemIds.stream().distinct().toList();
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            log.warn("Запрошено {} вещей, допустимо не более {}", uniqueIds.size(), MAX_BATCH_SIZE);
+            throw new BadRequestException("Нельзя запросить более " + MAX_BATCH_SIZE + " вещей за раз");
+        }
+
+        Map<Long, ItemWithView> items = itemRepository.findWithViewByIdIn(uniqueIds).stream()
+                .collect(Collectors.toMap(row -> row.item().getId(), Function.identity()));
+        log.debug("Найдено {} из {} запрошенных вещей", items.size(), uniqueIds.size());
+
+        return toItemDtos(uniqueIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList(), userId);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.ITEM_SEARCH, key = "#text.toLowerCase()",
+            condition = "#text != null && !#text.isBlank()")
     public List<ItemDto> searchItems(String text) {
         log.info("Запрос на поиск вещей по тексту: '{}'", text);
 
@@ -217,10 +282,18 @@ public class ItemServiceImpl implements ItemService {
                 .build();
 
         Comment savedComment = commentRepository.save(comment);
+        CommentDto commentDto = CommentMapper.toCommentDto(savedComment);
+        eventPublisher.publishEvent(new CommentAddedEvent(itemId, commentDto));
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.ITEM, itemId));
+        outbox.append(EventType.COMMENT_ADDED, itemId, Map.of(
+                "itemId", itemId,
+                "commentId", savedComment.getId(),
+                "authorId", userId,
+                "created", savedComment.getCreated().toString()));
         log.info("Комментарий успешно добавлен с ID: {} к вещи ID: {} от пользователя ID: {}",
                 savedComment.getId(), itemId, userId);
 
-        return CommentMapper.toCommentDto(savedComment);
+        return commentDto;
     }
 
     private User getUser(Long userId) {
@@ -232,46 +305,52 @@ public class ItemServiceImpl implements ItemService {
                 });
     }
 
-    private ItemDto toItemDtoWithBookingsAndComments(Item item, Long userId) {
-        log.trace("Преобразование вещи ID: {} в DTO для пользователя ID: {}", item.getId(), userId);
-
-        ItemDto itemDto = ItemMapper.toDto(item);
-
-        if (item.getOwner() != null && item.getOwner().getId().equals(userId)) {
-            log.debug("Пользователь ID: {} является владельцем вещи ID: {}, добавляем информацию о бронированиях",
-                    userId, item.getId());
-
-            LocalDateTime now = LocalDateTime.now();
-
-            Booking lastBooking = bookingRepository.findLastBooking(
-                    item.getId(), now, BookingStatus.APPROVED);
-            if (lastBooking != null) {
-                log.trace("Найдено последнее бронирование ID: {} для вещи ID: {}",
-                        lastBooking.getId(), item.getId());
-                itemDto.setLastBooking(new ItemDto.BookingInfo(
-                        lastBooking.getId(),
-                        lastBooking.getBooker().getId()));
-            }
-
-            Booking nextBooking = bookingRepository.findNextBooking(
-                    item.getId(), now, BookingStatus.APPROVED);
-            if (nextBooking != null) {
-                log.trace("Найдено следующее бронирование ID: {} для вещи ID: {}",
-                        nextBooking.getId(), item.getId());
-                itemDto.setNextBooking(new ItemDto.BookingInfo(
-                        nextBooking.getId(),
-                        nextBooking.getBooker().getId()));
-            }
-        }
+    private static Map<String, Object> itemPayload(Item item) {
+        // requestId может отсутствовать, а Map.of не допускает null
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("itemId", item.getId());
+        payload.put("ownerId", item.getOwnerId());
+        payload.put("name", item.getName());
+        payload.put("available", item.isAvailable());
+        payload.put("requestId", item.getRequestId());
+        return payload;
+    }
 
-        List<Comment> comments = commentRepository.findByItemIdOrderByCreatedDesc(item.getId());
-        log.trace("Найдено {} комментариев для вещи ID: {}", comments.size(), item.getId());
+    private ItemDto toItemDto(ItemWithView item, Long userId) {
+        return toItemDtos(List.of(item), userId).get(0);
+    }
 
-        itemDto.setComments(comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList()));
+    private List<ItemDto> toItemDtos(List<ItemWithView> items, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Представление отсутствует, следующее бронирование уже началось или сохранены не все
+        // комментарии — такие вещи собираются на лету, пока их не обновит фоновый пересчёт
+        List<Long> fallbackIds = items.stream()
+                .filter(row -> row.view() == null || row.view().isStale(now) || !row.view().hasAllComments())
+                .map(row -> row.item().getId())
+                .toList();
+        Map<Long, ItemView> rebuilt = fallbackIds.isEmpty()
+                ? Collections.emptyMap()
+                : itemViewProjector.fallback(fallbackIds, now);
+        if (!fallbackIds.isEmpty()) {
+            log.debug("Представления вещей {} собраны на лету", fallbackIds);
+        }
 
-        log.trace("Вещь ID: {} успешно преобразована в DTO", item.getId());
-        return itemDto;
+        return items.stream()
+                .map(row -> {
+                    Item item = row.item();
+                    ItemView view = rebuilt.getOrDefault(item.getId(), row.view());
+                    log.trace("Преобразование вещи ID: {} в DTO для пользователя ID: {}", item.getId(), userId);
+
+                    ItemDto itemDto = ItemMapper.toDto(item);
+                    // Бронирования видны только владельцу вещи
+                    if (item.getOwner() != null && item.getOwner().getId().equals(userId)) {
+                        itemDto.setLastBooking(view.getLastBooking());
+                        itemDto.setNextBooking(view.getNextBooking());
+                    }
+                    itemDto.setComments(new ArrayList<>(view.getLatestComments()));
+                    return itemDto;
+                })
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Денормализованное представление вещи для чтения: последнее и следующее подтверждённые
+ * бронирования, число комментариев и несколько последних из них.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_views")
+public class ItemView {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_booking_start")
+    private LocalDateTime lastBookingStart;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+
+    @Column(name = "comment_count", nullable = false)
+    private int commentCount;
+
+    @Builder.Default
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "latest_comments", nullable = false)
+    private List<CommentDto> latestComments = new ArrayList<>();
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    public static ItemView empty(Long itemId, LocalDateTime now) {
+        return ItemView.builder()
+                .itemId(itemId)
+                .refreshedAt(now)
+                .build();
+    }
+
+    // Следующее бронирование уже началось — last/next нужно пересчитать
+    public boolean isStale(LocalDateTime now) {
+        return nextBookingStart != null && !nextBookingStart.isAfter(now);
+    }
+
+    public boolean hasAllComments() {
+        return latestComments.size() >= commentCount;
+    }
+
+    public ItemDto.BookingInfo getLastBooking() {
+        return lastBookingId != null ? new ItemDto.BookingInfo(lastBookingId, lastBookerId) : null;
+    }
+
+    public ItemDto.BookingInfo getNextBooking() {
+        return nextBookingId != null ? new ItemDto.BookingInfo(nextBookingId, nextBookerId) : null;
+    }
+
+    public void recomputeBookings(Collection<Booking> approved, LocalDateTime now) {
+        setLast(null);
+        setNext(null);
+        approved.forEach(booking -> merge(booking, now));
+        refreshedAt = now;
+    }
+
+    /**
+     * Учитывает изменение одного бронирования. Возвращает false, если бронирование
+     * перестало быть подтверждённым, но занимает слот last/next — тогда нужен полный пересчёт.
+     */
+    public boolean applyBooking(Booking booking, LocalDateTime now) {
+        if (booking.getStatus() != BookingStatus.APPROVED) {
+            return !booking.getId().equals(lastBookingId) && !booking.getId().equals(nextBookingId);
+        }
+        merge(booking, now);
+        refreshedAt = now;
+        return true;
+    }
+
+    public void addComment(CommentDto comment, int limit) {
+        List<CommentDto> comments = new ArrayList<>(Math.min(limit, latestComments.size() + 1));
+        comments.add(comment);
+        latestComments.stream()
+                .limit(Math.max(0, limit - 1))
+                .forEach(comments::add);
+        latestComments = comments;
+        commentCount++;
+    }
+
+    /**
+     * Подставляет новое имя автора в сохранённые комментарии с указанными id.
+     * Возвращает false, если среди последних комментариев таких нет.
+     */
+    public boolean renameAuthor(Set<Long> commentIds, String authorName) {
+        if (latestComments.stream().noneMatch(comment -> commentIds.contains(comment.getId()))) {
+            return false;
+        }
+        // Новый список, чтобы изменение JSON-столбца было замечено при сбросе
+        latestComments = latestComments.stream()
+                .map(comment -> commentIds.contains(comment.getId())
+                        ? new CommentDto(comment.getId(), comment.getText(), authorName, comment.getCreated())
+                        : comment)
+                .collect(Collectors.toCollection(ArrayList::new));
+        return true;
+    }
+
+    private void merge(Booking booking, LocalDateTime now) {
+        LocalDateTime start = booking.getStart();
+        if (!start.isAfter(now)) {
+            if (lastBookingStart == null || start.isAfter(lastBookingStart)) {
+                setLast(booking);
+            }
+        } else if (nextBookingStart == null || start.isBefore(nextBookingStart)) {
+            setNext(booking);
+        }
+    }
+
+    private void setLast(Booking booking) {
+        lastBookingId = booking != null ? booking.getId() : null;
+        lastBookerId = booking != null ? booking.getBooker().getId() : null;
+        lastBookingStart = booking != null ? booking.getStart() : null;
+    }
+
+    private void setNext(Booking booking) {
+        nextBookingId = booking != null ? booking.getId() : null;
+        nextBookerId = booking != null ? booking.getBooker().getId() : null;
+        nextBookingStart = booking != null ? booking.getStart() : null;
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentAddedEvent;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.user.UserRenamedEvent;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает таблицу item_views: события бронирований и комментариев применяются
+ * инкрементально в той же транзакции, а переход времени через начало следующего
+ * бронирования обрабатывается периодическим пересчётом.
+ */
+@Slf4j
+@Component
+public class ItemViewProjector {
+    private final ItemViewRepository itemViewRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemViewProperties properties;
+    private final Counter incremental;
+    private final Counter rebuilt;
+    private final Counter backfilled;
+    private final Counter fallbacks;
+
+    public ItemViewProjector(ItemViewRepository itemViewRepository,
+                             ItemRepository itemRepository,
+                             BookingRepository bookingRepository,
+                             CommentRepository commentRepository,
+                             ItemViewProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.itemViewRepository = itemViewRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.properties = properties;
+        this.incremental = updates(meterRegistry, "incremental");
+        this.rebuilt = updates(meterRegistry, "rebuild");
+        this.backfilled = updates(meterRegistry, "backfill");
+        this.fallbacks = Counter.builder("shareit.item.view.fallbacks")
+                .description("Чтения, для которых представление пришлось собрать на лету")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        // Ожидающие бронирования не влияют на last/next, а других переходов из WAITING нет
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findAllById(event.getBookingIds()).stream()
+                .filter(booking -> booking.getStatus() != BookingStatus.WAITING)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        if (bookingsByItem.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemView> toRebuild = new ArrayList<>();
+        for (ItemView view : itemViewRepository.lockByItemIdIn(bookingsByItem.keySet())) {
+            boolean applied = !view.isStale(now) && bookingsByItem.get(view.getItemId()).stream()
+                    .allMatch(booking -> view.applyBooking(booking, now));
+            if (applied) {
+                incremental.increment();
+            } else {
+                toRebuild.add(view);
+            }
+        }
+        rebuildBookings(toRebuild, now);
+        log.debug("Представления вещей {} обновлены по бронированиям {}", bookingsByItem.keySet(),
+                event.getBookingIds());
+    }
+
+    @EventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        itemViewRepository.lockByItemIdIn(List.of(event.getItemId()))
+                .forEach(view -> {
+                    view.addComment(event.getComment(), properties.getLatestComments());
+                    incremental.increment();
+                });
+    }
+
+    // Имя автора хранится в копиях комментариев, поэтому переименование обновляет их во всех представлениях
+    @EventListener
+    public void onUserRenamed(UserRenamedEvent event) {
+        Map<Long, Set<Long>> commentIdsByItem = commentRepository.findByAuthorId(event.getUserId()).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(Comment::getId, Collectors.toSet())));
+        if (commentIdsByItem.isEmpty()) {
+            return;
+        }
+        itemViewRepository.lockByItemIdIn(commentIdsByItem.keySet()).forEach(view -> {
+            if (view.renameAuthor(commentIdsByItem.get(view.getItemId()), event.getName())) {
+                incremental.increment();
+            }
+        });
+        log.debug("Имя автора обновлено в представлениях вещей {}", commentIdsByItem.keySet());
+    }
+
+    /**
+     * Пересчитывает last/next у представлений, чьё следующее бронирование уже началось.
+     */
+    @Transactional
+    public int refreshStale(LocalDateTime now) {
+        List<ItemView> stale = itemViewRepository.lockStale(now, PageRequest.of(0, properties.getBatchSize()));
+        rebuildBookings(stale, now);
+        return stale.size();
+    }
+
+    /**
+     * Строит представления для вещей, у которых их ещё нет (созданных до появления таблицы).
+     */
+    @Transactional
+    public int backfill(LocalDateTime now) {
+        List<Long> itemIds = itemRepository.findIdsWithoutView(PageRequest.of(0, properties.getBatchSize()));
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        Collection<ItemView> views = build(itemIds, now).values();
+        views.forEach(view -> view.setLatestComments(view.getLatestComments().stream()
+                .limit(properties.getLatestComments())
+                .collect(Collectors.toList())));
+        itemViewRepository.saveAll(views);
+        backfilled.increment(views.size());
+        return views.size();
+    }
+
+    /**
+     * Собирает представления без сохранения, когда сохранённые отсутствуют или устарели.
+     * Комментарии загружаются полностью.
+     */
+    public Map<Long, ItemView> fallback(Collection<Long> itemIds, LocalDateTime now) {
+        fallbacks.increment(itemIds.size());
+        return build(itemIds, now);
+    }
+
+    private Map<Long, ItemView> build(Collection<Long> itemIds, LocalDateTime now) {
+        List<Long> ids = new ArrayList<>(itemIds);
+        Map<Long, List<Booking>> bookingsByItem = approvedBookingsByItem(ids);
+        Map<Long, List<CommentDto>> commentsByItem = commentRepository.findByItemIdInOrderByCreatedDesc(ids).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
+        return ids.stream()
+                .map(itemId -> {
+                    ItemView view = ItemView.empty(itemId, now);
+                    view.recomputeBookings(bookingsByItem.getOrDefault(itemId, Collections.emptyList()), now);
+                    List<CommentDto> comments = commentsByItem.getOrDefault(itemId, Collections.emptyList());
+                    view.setLatestComments(comments);
+                    view.setCommentCount(comments.size());
+                    return view;
+                })
+                .collect(Collectors.toMap(ItemView::getItemId, Function.identity()));
+    }
+
+    private void rebuildBookings(List<ItemView> views, LocalDateTime now) {
+        if (views.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Booking>> bookingsByItem = approvedBookingsByItem(
+                views.stream().map(ItemView::getItemId).toList());
+        views.forEach(view -> view.recomputeBookings(
+                bookingsByItem.getOrDefault(view.getItemId(), Collections.emptyList()), now));
+        rebuilt.increment(views.size());
+        log.debug("Пересчитаны бронирования в {} представлениях вещей", views.size());
+    }
+
+    private Map<Long, List<Booking>> approvedBookingsByItem(List<Long> itemIds) {
+        return bookingRepository.findByItemIdInAndStatus(itemIds, BookingStatus.APPROVED).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    }
+
+    private static Counter updates(MeterRegistry meterRegistry, String mode) {
+        return Counter.builder("shareit.item.view.updates")
+                .description("Обновления представлений вещей")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
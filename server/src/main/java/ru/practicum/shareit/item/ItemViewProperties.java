@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.item-view")
+public class ItemViewProperties {
+    private Duration refreshInterval = Duration.ofSeconds(30);
+    private int batchSize = 200;
+    private int latestComments = 20;
+}
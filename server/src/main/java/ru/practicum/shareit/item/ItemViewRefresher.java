@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+public class ItemViewRefresher {
+    private final ItemViewProjector projector;
+    private final ItemViewProperties properties;
+
+    public ItemViewRefresher(ItemViewProjector projector, ItemViewProperties properties) {
+        this.projector = projector;
+        this.properties = properties;
+    }
+
+    public void refresh() {
+        try {
+            int stale;
+            do {
+                stale = projector.refreshStale(LocalDateTime.now());
+            } while (stale == properties.getBatchSize());
+
+            int created;
+            do {
+                created = projector.backfill(LocalDateTime.now());
+                if (created > 0) {
+                    log.info("Построено {} представлений для вещей без представления", created);
+                }
+            } while (created == properties.getBatchSize());
+        } catch (DataAccessException e) {
+            // Например, соседний узел одновременно построил те же представления — повторим на следующем шаге
+            log.warn("Не удалось обновить представления вещей: {}", e.getMessage());
+        }
+    }
+}
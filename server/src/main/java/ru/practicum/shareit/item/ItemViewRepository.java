@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemViewRepository extends JpaRepository<ItemView, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ItemView v WHERE v.itemId IN :itemIds")
+    List<ItemView> lockByItemIdIn(Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ItemView v WHERE v.nextBookingStart <= :now ORDER BY v.nextBookingStart")
+    List<ItemView> lockStale(LocalDateTime now, Pageable pageable);
+}
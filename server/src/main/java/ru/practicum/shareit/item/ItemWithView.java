@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Вещь вместе с её представлением; view равен null, если представление ещё не построено.
+ */
+public record ItemWithView(Item item, ItemView view) {
+}
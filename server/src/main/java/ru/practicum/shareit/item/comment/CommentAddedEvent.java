@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.Value;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+
+/**
+ * Публикуется внутри транзакции после сохранения комментария.
+ */
+@Value
+public class CommentAddedEvent {
+    Long itemId;
+    CommentDto comment;
+}
@@ -1,11 +0,0 @@
-package ru.practicum.shareit.item.comment.dto;
-
-import lombok.*;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class CommentRequestDto {
-    private String text;
-}
\ No newline at end of file
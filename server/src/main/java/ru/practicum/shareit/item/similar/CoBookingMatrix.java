@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item.similar;
+
+import ru.practicum.shareit.item.dto.SimilarItemDto;
+import ru.practicum.shareit.util.LongIntHashMap;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Разреженная матрица совместных бронирований: для пары вещей — число пользователей,
+ * бронировавших обе. Строки хранятся в {@link LongIntHashMap}, множества вещей
+ * пользователей — отсортированными массивами. Изменения вносятся заменой множества
+ * пользователя целиком, поэтому повторное применение безопасно.
+ */
+class CoBookingMatrix {
+    private static final long[] NONE = new long[0];
+
+    private final int maxItemsPerUser;
+    private final int topSize;
+    private final Map<Long, long[]> userItems = new HashMap<>();
+    private final Map<Long, LongIntHashMap> rows = new HashMap<>();
+    private final LongIntHashMap itemUsers = new LongIntHashMap();
+    private final Map<Long, Ranking> rankings = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long pairs;
+    private final AtomicLong version = new AtomicLong();
+
+    CoBookingMatrix(int maxItemsPerUser, int topSize) {
+        this.maxItemsPerUser = maxItemsPerUser;
+        this.topSize = topSize;
+    }
+
+    /**
+     * Заменяет множество вещей пользователя. Пользователи с числом вещей больше
+     * max-items-per-user не учитываются: их пары почти ничего не говорят о сходстве,
+     * а стоят квадратично.
+     *
+     * @param items отсортированные различные идентификаторы вещей
+     */
+    void replaceUser(long userId, long[] items) {
+        long[] next = items.length > maxItemsPerUser ? NONE : items;
+        lock.writeLock().lock();
+        try {
+            long[] previous = next.length == 0 ? userItems.remove(userId) : userItems.put(userId, next);
+            if (previous == null) {
+                previous = NONE;
+            }
+            if (Arrays.equals(previous, next)) {
+                return;
+            }
+            apply(previous, -1);
+            apply(next, 1);
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<SimilarItemDto> similar(long itemId, int limit) {
+        Ranking ranking = rankings.get(itemId);
+        if (ranking == null || ranking.version != version.get()) {
+            lock.readLock().lock();
+            try {
+                ranking = rank(itemId, version.get());
+            } finally {
+                lock.readLock().unlock();
+            }
+            // Пустые результаты не кешируются, чтобы запросы к несуществующим вещам не раздували кеш
+            if (!ranking.items.isEmpty()) {
+                rankings.put(itemId, ranking);
+            }
+        }
+        return ranking.items.subList(0, Math.max(0, Math.min(limit, ranking.items.size())));
+    }
+
+    long pairs() {
+        lock.readLock().lock();
+        try {
+            return pairs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int users() {
+        lock.readLock().lock();
+        try {
+            return userItems.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(long[] items, int delta) {
+        for (int i = 0; i < items.length; i++) {
+            itemUsers.addTo(items[i], delta);
+            for (int j = i + 1; j < items.length; j++) {
+                increment(items[i], items[j], delta);
+                increment(items[j], items[i], delta);
+            }
+        }
+    }
+
+    private void increment(long item, long other, int delta) {
+        LongIntHashMap row = rows.computeIfAbsent(item, id -> new LongIntHashMap());
+        int value = row.addTo(other, delta);
+        if (value == 0) {
+            pairs--;
+            if (row.isEmpty()) {
+                rows.remove(item);
+            }
+        } else if (value == delta) {
+            pairs++;
+        }
+    }
+
+    // Косинусная мера: совместные бронирования, нормированные на популярность обеих вещей
+    private Ranking rank(long itemId, long atVersion) {
+        LongIntHashMap row = rows.get(itemId);
+        if (row == null) {
+            return new Ranking(atVersion, List.of());
+        }
+        double users = itemUsers.get(itemId);
+        List<SimilarItemDto> candidates = new ArrayList<>(row.size());
+        row.forEach((other, together) -> candidates.add(new SimilarItemDto(other,
+                together / Math.sqrt(users * itemUsers.get(other)), together)));
+        candidates.sort(Comparator.comparingDouble(SimilarItemDto::getScore).reversed()
+                .thenComparing(SimilarItemDto::getItemId));
+        return new Ranking(atVersion, List.copyOf(candidates.subList(0, Math.min(topSize, candidates.size()))));
+    }
+
+    private record Ranking(long version, List<SimilarItemDto> items) {
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.similar;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.item-similar")
+public class SimilarItemsProperties {
+    private Duration refreshInterval = Duration.ofSeconds(30);
+    private Duration fullRebuildInterval = Duration.ofHours(24);
+    private int maxItemsPerUser = 500;
+    private int topSize = 50;
+    private int fetchSize = 1000;
+    private int batchSize = 500;
+}
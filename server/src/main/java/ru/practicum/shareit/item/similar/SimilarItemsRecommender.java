@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item.similar;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.SimilarItemDto;
+import ru.practicum.shareit.outbox.OutboxCatchUp;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxWatermark;
+import ru.practicum.shareit.sql.StreamingQueries;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Рекомендации «с этой вещью также бронируют» по подтверждённым бронированиям. Матрица
+ * целиком живёт в памяти узла: ответ не обращается к базе. Каждый узел сам догоняет
+ * изменения по outbox — пересчитывает множества вещей пользователей, чьи бронирования
+ * менялись после водяного знака, — и периодически строит матрицу заново.
+ */
+@Slf4j
+public class SimilarItemsRecommender {
+    private static final String PAIRS_SQL = "SELECT DISTINCT booker_id, item_id FROM bookings "
+            + "WHERE status = 'APPROVED'";
+    private static final String ORDER = " ORDER BY booker_id, item_id";
+
+    private final OutboxCatchUp catchUp;
+    private final StreamingQueries queries;
+    private final TransactionTemplate transactionTemplate;
+    private final SimilarItemsProperties properties;
+    private volatile CoBookingMatrix matrix;
+    private OutboxWatermark watermark;
+
+    public SimilarItemsRecommender(OutboxCatchUp catchUp,
+                                   StreamingQueries queries,
+                                   TransactionTemplate transactionTemplate,
+                                   SimilarItemsProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.catchUp = catchUp;
+        this.queries = queries;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        Gauge.builder("shareit.item.similar.pairs", this, r -> r.matrix != null ? r.matrix.pairs() : 0)
+                .description("Ненулевые ячейки матрицы совместных бронирований")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.similar.users", this, r -> r.matrix != null ? r.matrix.users() : 0)
+                .description("Пользователи, учтённые в матрице совместных бронирований")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Похожие вещи по убыванию сходства. Пока матрица не построена, список пуст.
+     */
+    public List<SimilarItemDto> findSimilar(long itemId, int limit) {
+        CoBookingMatrix current = matrix;
+        return current != null ? current.similar(itemId, limit) : List.of();
+    }
+
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            // Матрица и водяной знак живут только в памяти: после рестарта узел строит её заново
+            OutboxWatermark current = matrix != null ? watermark : null;
+            watermark = transactionTemplate.execute(status -> catchUp.run(current, now, this::rebuild, this::update));
+        } catch (DataAccessException e) {
+            log.warn("Не удалось обновить матрицу похожих вещей: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        CoBookingMatrix next = new CoBookingMatrix(properties.getMaxItemsPerUser(), properties.getTopSize());
+        UserItemsCollector collector = new UserItemsCollector(next);
+        queries.query(PAIRS_SQL + ORDER, collector);
+        collector.flush();
+        matrix = next;
+        log.info("Матрица похожих вещей построена: пользователей {}, пар {}", next.users(), next.pairs());
+    }
+
+    private void update(List<OutboxEvent> events) {
+        List<Long> bookerIds = events.stream()
+                .map(event -> event.payloadId("bookerId"))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        queries.forEachBatch(bookerIds, batch -> {
+            UserItemsCollector collector = new UserItemsCollector(matrix);
+            queries.queryByIds(PAIRS_SQL + " AND booker_id IN (:ids)" + ORDER, batch, collector);
+            collector.flush();
+            // Пользователи без подтверждённых бронирований выпадают из выборки — очищаем их явно
+            batch.stream()
+                    .filter(id -> !collector.seen.contains(id))
+                    .forEach(id -> matrix.replaceUser(id, new long[0]));
+        });
+        if (!bookerIds.isEmpty()) {
+            log.debug("Матрица похожих вещей обновлена для {} пользователей", bookerIds.size());
+        }
+    }
+
+    /**
+     * Собирает вещи пользователя из строк, упорядоченных по booker_id, и передаёт
+     * множество в матрицу, когда пользователь сменился.
+     */
+    private static final class UserItemsCollector implements RowCallbackHandler {
+        private final CoBookingMatrix target;
+        private final Set<Long> seen = new HashSet<>();
+        private long userId;
+        private long[] items = new long[16];
+        private int count;
+
+        private UserItemsCollector(CoBookingMatrix target) {
+            this.target = target;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long booker = rs.getLong("booker_id");
+            if (booker != userId) {
+                flush();
+                userId = booker;
+                seen.add(booker);
+            }
+            if (count == items.length) {
+                items = Arrays.copyOf(items, count * 2);
+            }
+            items[count++] = rs.getLong("item_id");
+        }
+
+        void flush() {
+            if (count > 0) {
+                target.replaceUser(userId, Arrays.copyOf(items, count));
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.stats;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка курсора по бронированиям: только то, что нужно для агрегации.
+ */
+public record BookingFact(Long itemId,
+                          Long ownerId,
+                          BookingStatus status,
+                          LocalDateTime start,
+                          LocalDateTime end,
+                          LocalDateTime created) {
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.stats;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.item.dto.ItemStatsDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Сводка по бронированиям вещи, которую пересчитывает {@link ItemStatsJob}. Хранятся суммы,
+ * а доли и средние вычисляются при чтении, поэтому частичный пересчёт не накапливает ошибку.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_stats", indexes = @Index(name = "idx_item_stats_owner", columnList = "owner_id"))
+public class ItemStats {
+    private static final double SECONDS_PER_MONTH = Duration.ofDays(30).toSeconds();
+    private static final double SECONDS_PER_HOUR = Duration.ofHours(1).toSeconds();
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "bookings", nullable = false)
+    private long bookings;
+
+    @Column(name = "approved_bookings", nullable = false)
+    private long approvedBookings;
+
+    @Column(name = "rejected_bookings", nullable = false)
+    private long rejectedBookings;
+
+    @Column(name = "booked_seconds", nullable = false)
+    private long bookedSeconds;
+
+    @Column(name = "lead_time_seconds", nullable = false)
+    private long leadTimeSeconds;
+
+    @Column(name = "lead_time_samples", nullable = false)
+    private long leadTimeSamples;
+
+    @Column(name = "first_booking_start")
+    private LocalDateTime firstBookingStart;
+
+    @Column(name = "last_booking_end")
+    private LocalDateTime lastBookingEnd;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public ItemStatsDto toDto() {
+        long span = firstBookingStart != null
+                ? Math.max(0, Duration.between(firstBookingStart, lastBookingEnd).toSeconds())
+                : 0;
+        return ItemStatsDto.builder()
+                .itemId(itemId)
+                .bookings(bookings)
+                .approvedBookings(approvedBookings)
+                .rejectedBookings(rejectedBookings)
+                // Доля времени между первым и последним подтверждённым бронированием, когда вещь занята
+                .occupancyRate(span > 0 ? Math.min(1.0, (double) bookedSeconds / span) : 0.0)
+                .averageLeadTimeHours(leadTimeSamples > 0
+                        ? leadTimeSeconds / SECONDS_PER_HOUR / leadTimeSamples
+                        : null)
+                .bookingsPerMonth(approvedBookings / Math.max(1.0, span / SECONDS_PER_MONTH))
+                .firstBookingStart(firstBookingStart)
+                .lastBookingEnd(lastBookingEnd)
+                .computedAt(computedAt)
+                .build();
+    }
+}
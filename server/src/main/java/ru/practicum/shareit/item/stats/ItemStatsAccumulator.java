@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.stats;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Collector;
+
+/**
+ * Частичный агрегат по бронированиям одной вещи. Частичные агрегаты параллельных
+ * потоков объединяются через {@link #merge}.
+ */
+class ItemStatsAccumulator {
+    private Long ownerId;
+    private long bookings;
+    private long approved;
+    private long rejected;
+    private long bookedSeconds;
+    private long leadTimeSeconds;
+    private long leadTimeSamples;
+    private LocalDateTime firstStart;
+    private LocalDateTime lastEnd;
+
+    static Collector<BookingFact, ItemStatsAccumulator, ItemStatsAccumulator> collector() {
+        return Collector.of(ItemStatsAccumulator::new, ItemStatsAccumulator::add, ItemStatsAccumulator::merge);
+    }
+
+    void add(BookingFact fact) {
+        ownerId = fact.ownerId();
+        bookings++;
+        if (fact.status() == BookingStatus.REJECTED) {
+            rejected++;
+        }
+        if (fact.status() != BookingStatus.APPROVED) {
+            return;
+        }
+        approved++;
+        bookedSeconds += Math.max(0, Duration.between(fact.start(), fact.end()).toSeconds());
+        if (fact.created() != null) {
+            leadTimeSeconds += Math.max(0, Duration.between(fact.created(), fact.start()).toSeconds());
+            leadTimeSamples++;
+        }
+        if (firstStart == null || fact.start().isBefore(firstStart)) {
+            firstStart = fact.start();
+        }
+        if (lastEnd == null || fact.end().isAfter(lastEnd)) {
+            lastEnd = fact.end();
+        }
+    }
+
+    ItemStatsAccumulator merge(ItemStatsAccumulator other) {
+        if (ownerId == null) {
+            ownerId = other.ownerId;
+        }
+        bookings += other.bookings;
+        approved += other.approved;
+        rejected += other.rejected;
+        bookedSeconds += other.bookedSeconds;
+        leadTimeSeconds += other.leadTimeSeconds;
+        leadTimeSamples += other.leadTimeSamples;
+        if (other.firstStart != null && (firstStart == null || other.firstStart.isBefore(firstStart))) {
+            firstStart = other.firstStart;
+        }
+        if (other.lastEnd != null && (lastEnd == null || other.lastEnd.isAfter(lastEnd))) {
+            lastEnd = other.lastEnd;
+        }
+        return this;
+    }
+
+    void applyTo(ItemStats stats, LocalDateTime computedAt) {
+        stats.setOwnerId(ownerId);
+        stats.setBookings(bookings);
+        stats.setApprovedBookings(approved);
+        stats.setRejectedBookings(rejected);
+        stats.setBookedSeconds(bookedSeconds);
+        stats.setLeadTimeSeconds(leadTimeSeconds);
+        stats.setLeadTimeSamples(leadTimeSamples);
+        stats.setFirstBookingStart(firstStart);
+        stats.setLastBookingEnd(lastEnd);
+        stats.setComputedAt(computedAt);
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.item.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.outbox.OutboxCatchUp;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxWatermark;
+import ru.practicum.shareit.sql.StreamingQueries;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Периодически пересчитывает {@link ItemStats}. Бронирования читаются потоковым курсором,
+ * а пачки строк агрегируются параллельно в отдельном пуле. Обычный запуск пересчитывает
+ * только вещи, чьи бронирования менялись после водяного знака по outbox; водяной знак
+ * хранится в базе и общий для всех узлов.
+ */
+@Slf4j
+public class ItemStatsJob {
+    private static final long LOCK_KEY = 0x4954454D53L;
+    private static final String FACTS_SQL = "SELECT b.item_id, i.owner_id, b.status, b.start_date, b.end_date, "
+            + "b.created FROM bookings b JOIN items i ON i.id = b.item_id";
+
+    private final ItemStatsRepository itemStatsRepository;
+    private final ItemStatsWatermarkRepository watermarkRepository;
+    private final OutboxCatchUp catchUp;
+    private final StreamingQueries queries;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean postgres;
+    private final ItemStatsProperties properties;
+    private final ForkJoinPool pool;
+    private final Counter full;
+    private final Counter incremental;
+
+    public ItemStatsJob(ItemStatsRepository itemStatsRepository,
+                        ItemStatsWatermarkRepository watermarkRepository,
+                        OutboxCatchUp catchUp,
+                        StreamingQueries queries,
+                        EntityManager entityManager,
+                        JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        boolean postgres,
+                        ItemStatsProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.itemStatsRepository = itemStatsRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.catchUp = catchUp;
+        this.queries = queries;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.postgres = postgres;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.getParallelism());
+        this.full = items(meterRegistry, "full");
+        this.incremental = items(meterRegistry, "incremental");
+    }
+
+    public void run() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> refresh(LocalDateTime.now()));
+        } catch (DataAccessException e) {
+            log.warn("Не удалось пересчитать статистику вещей: {}", e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void refresh(LocalDateTime now) {
+        if (postgres && !tryLock()) {
+            log.debug("Статистику вещей пересчитывает другой узел");
+            return;
+        }
+        ItemStatsWatermark state = watermarkRepository.findById(ItemStatsWatermark.NAME)
+                .orElseGet(() -> new ItemStatsWatermark(ItemStatsWatermark.NAME, null));
+        OutboxWatermark watermark = state.getPosition();
+        if (!catchUp.needsRebuild(watermark, now)
+                && watermark.getLastRunAt().isAfter(now.minus(properties.getInterval().dividedBy(2)))) {
+            log.debug("Статистика вещей недавно пересчитана другим узлом");
+            return;
+        }
+
+        state.setPosition(catchUp.run(watermark, now, () -> rebuild(now), events -> update(events, now)));
+        watermarkRepository.save(state);
+    }
+
+    private void rebuild(LocalDateTime now) {
+        Map<Long, ItemStatsAccumulator> stats = aggregate(queries.stream(FACTS_SQL, ItemStatsJob::toFact));
+        write(stats, now);
+        int removed = itemStatsRepository.deleteComputedBefore(now);
+        full.increment(stats.size());
+        log.info("Полный пересчёт статистики: {} вещей, удалено устаревших {}", stats.size(), removed);
+    }
+
+    private void update(List<OutboxEvent> events, LocalDateTime now) {
+        List<Long> changed = events.stream()
+                .map(event -> event.payloadId("itemId"))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        queries.forEachBatch(changed, batch -> {
+            Map<Long, ItemStatsAccumulator> stats = aggregate(
+                    queries.streamByIds(FACTS_SQL + " WHERE b.item_id IN (:ids)", batch, ItemStatsJob::toFact));
+            // Вещи, у которых не осталось бронирований, выпадают из выборки — их статистика удаляется
+            List<Long> empty = batch.stream().filter(id -> !stats.containsKey(id)).toList();
+            if (!empty.isEmpty()) {
+                itemStatsRepository.deleteAllByIdInBatch(empty);
+            }
+            write(stats, now);
+        });
+        incremental.increment(changed.size());
+        if (!changed.isEmpty()) {
+            log.info("Инкрементальный пересчёт статистики: {} вещей", changed.size());
+        }
+    }
+
+    private Map<Long, ItemStatsAccumulator> aggregate(Stream<BookingFact> source) {
+        try (Stream<BookingFact> facts = source) {
+            // Курсор читается последовательно, а накопление по пачкам строк идёт в потоках пула
+            return pool.submit(() -> facts.parallel()
+                            .collect(Collectors.groupingByConcurrent(BookingFact::itemId,
+                                    ItemStatsAccumulator.collector())))
+                    .join();
+        }
+    }
+
+    private void write(Map<Long, ItemStatsAccumulator> accumulators, LocalDateTime now) {
+        queries.forEachBatch(new ArrayList<>(accumulators.keySet()), batch -> {
+            Map<Long, ItemStats> existing = itemStatsRepository.findAllById(batch).stream()
+                    .collect(Collectors.toMap(ItemStats::getItemId, Function.identity()));
+            for (Long itemId : batch) {
+                ItemStats stats = existing.get(itemId);
+                if (stats == null) {
+                    stats = ItemStats.builder().itemId(itemId).build();
+                    accumulators.get(itemId).applyTo(stats, now);
+                    entityManager.persist(stats);
+                } else {
+                    accumulators.get(itemId).applyTo(stats, now);
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY));
+    }
+
+    private static BookingFact toFact(ResultSet rs, int rowNum) throws SQLException {
+        return new BookingFact(
+                rs.getLong("item_id"),
+                rs.getLong("owner_id"),
+                BookingStatus.valueOf(rs.getString("status")),
+                rs.getObject("start_date", LocalDateTime.class),
+                rs.getObject("end_date", LocalDateTime.class),
+                rs.getObject("created", LocalDateTime.class));
+    }
+
+    private static Counter items(MeterRegistry meterRegistry, String mode) {
+        return Counter.builder("shareit.item.stats.items")
+                .description("Вещи, для которых пересчитана статистика")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
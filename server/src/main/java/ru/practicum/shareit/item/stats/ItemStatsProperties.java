@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.stats;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.item-stats")
+public class ItemStatsProperties {
+    private Duration interval = Duration.ofMinutes(10);
+    private Duration fullRebuildInterval = Duration.ofHours(24);
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int fetchSize = 1000;
+    private int batchSize = 500;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.stats;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ItemStatsRepository extends JpaRepository<ItemStats, Long> {
+
+    @Modifying
+    @Query("DELETE FROM ItemStats s WHERE s.computedAt < :computedAt")
+    int deleteComputedBefore(LocalDateTime computedAt);
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.stats;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.outbox.OutboxWatermark;
+
+/**
+ * Общий для узлов водяной знак пересчёта статистики по событиям бронирований.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_stats_watermarks")
+public class ItemStatsWatermark {
+    public static final String NAME = "item-stats";
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Embedded
+    private OutboxWatermark position;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.stats;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ItemStatsWatermarkRepository extends JpaRepository<ItemStatsWatermark, String> {
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@Endpoint(id = "logsampling")
+public class LogSamplingEndpoint {
+
+    @ReadOperation
+    public Map<String, SamplingRule> rules() {
+        return filter().map(LogSamplingTurboFilter::getRules).orElse(Map.of());
+    }
+
+    @ReadOperation
+    @Nullable
+    public SamplingRule rule(@Selector String name) {
+        return filter().flatMap(filter -> filter.getRule(name)).orElse(null);
+    }
+
+    @WriteOperation
+    public void configure(@Selector String name, double sampleRate, int maxPerSecond) {
+        filter().ifPresent(filter -> filter.putRule(name, sampleRate, maxPerSecond));
+    }
+
+    @DeleteOperation
+    public void remove(@Selector String name) {
+        filter().ifPresent(filter -> filter.removeRule(name));
+    }
+
+    private Optional<LogSamplingTurboFilter> filter() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return Optional.empty();
+        }
+        return context.getTurboFilterList().stream()
+                .filter(LogSamplingTurboFilter.class::isInstance)
+                .map(LogSamplingTurboFilter.class::cast)
+                .findFirst();
+    }
+}
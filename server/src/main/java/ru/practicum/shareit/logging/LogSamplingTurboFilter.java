@@ -0,0 +1,81 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LogSamplingTurboFilter extends TurboFilter {
+    private static final SamplingRule NO_RULE = new SamplingRule("", 1.0, 0);
+
+    private final Map<String, SamplingRule> rules = new ConcurrentHashMap<>();
+    private final Map<String, SamplingRule> resolved = new ConcurrentHashMap<>();
+
+    // Формат: "логгер:доля:сообщений_в_секунду", правила через запятую
+    public void setRules(String rulesSpec) {
+        if (rulesSpec == null || rulesSpec.isBlank()) {
+            return;
+        }
+        for (String spec : rulesSpec.split(",")) {
+            String[] parts = spec.trim().split(":");
+            if (parts.length != 3) {
+                addWarn("Некорректное правило семплирования логов: " + spec);
+                continue;
+            }
+            putRule(parts[0], Double.parseDouble(parts[1]), Integer.parseInt(parts[2]));
+        }
+    }
+
+    public void putRule(String loggerName, double sampleRate, int maxPerSecond) {
+        rules.put(loggerName, new SamplingRule(loggerName, sampleRate, maxPerSecond));
+        resolved.clear();
+    }
+
+    public boolean removeRule(String loggerName) {
+        boolean removed = rules.remove(loggerName) != null;
+        resolved.clear();
+        return removed;
+    }
+
+    public Map<String, SamplingRule> getRules() {
+        return new TreeMap<>(rules);
+    }
+
+    public Optional<SamplingRule> getRule(String loggerName) {
+        return Optional.ofNullable(rules.get(loggerName));
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        SamplingRule rule = resolved.computeIfAbsent(logger.getName(), this::findRule);
+        if (rule == NO_RULE) {
+            return FilterReply.NEUTRAL;
+        }
+        return rule.tryAcquire() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private SamplingRule findRule(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            SamplingRule rule = rules.get(name);
+            if (rule != null) {
+                return rule;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return rules.getOrDefault(Logger.ROOT_LOGGER_NAME, NO_RULE);
+            }
+            name = name.substring(0, dot);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SamplingRule {
+    private final String loggerName;
+    private final double sampleRate;
+    private final int maxPerSecond;
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger passedInSecond = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public SamplingRule(String loggerName, double sampleRate, int maxPerSecond) {
+        this.loggerName = loggerName;
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public boolean tryAcquire() {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (maxPerSecond <= 0) {
+            return true;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long previous = currentSecond.get();
+        if (previous != second && currentSecond.compareAndSet(previous, second)) {
+            passedInSecond.set(0);
+        }
+        if (passedInSecond.incrementAndGet() > maxPerSecond) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Событие, доставляемое обработчикам шины; id совпадает с идентификатором записи outbox.
+ */
+public record DomainEvent(Long id,
+                          AggregateType aggregateType,
+                          Long aggregateId,
+                          EventType eventType,
+                          Map<String, Object> payload,
+                          LocalDateTime createdAt) {
+
+    static DomainEvent from(OutboxEvent event) {
+        return new DomainEvent(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+}
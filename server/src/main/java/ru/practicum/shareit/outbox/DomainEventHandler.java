@@ -0,0 +1,11 @@
+package ru.practicum.shareit.outbox;
+
+/**
+ * Обработчик событий шины. Вызывается в потоке полосы агрегата, поэтому события одного
+ * агрегата приходят строго по порядку; доставка не менее одного раза.
+ */
+public interface DomainEventHandler {
+    String name();
+
+    void handle(DomainEvent event);
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Внутрипроцессная шина событий. Каждая полоса — ограниченный кольцевой буфер с одним
+ * потоком-обработчиком; агрегат всегда попадает в одну и ту же полосу, поэтому его события
+ * обрабатываются по порядку, а разные агрегаты — параллельно.
+ */
+@Slf4j
+public class EventBus implements AutoCloseable {
+    private final List<DomainEventHandler> handlers;
+    private final List<BlockingQueue<DomainEvent>> lanes;
+    private final List<Thread> workers;
+    private final Queue<Long> processed = new ConcurrentLinkedQueue<>();
+    private final MeterRegistry meterRegistry;
+    private final Timer deliveryLag;
+    private volatile boolean running = true;
+
+    public EventBus(List<DomainEventHandler> handlers, int laneCount, int laneCapacity, MeterRegistry meterRegistry) {
+        this.handlers = List.copyOf(handlers);
+        this.meterRegistry = meterRegistry;
+        this.deliveryLag = Timer.builder("shareit.outbox.delivery.lag")
+                .description("Время от записи события в outbox до завершения его обработки")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.lanes = new ArrayList<>(laneCount);
+        this.workers = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<DomainEvent> lane = new ArrayBlockingQueue<>(laneCapacity);
+            lanes.add(lane);
+            Gauge.builder("shareit.outbox.lane.depth", lane, BlockingQueue::size)
+                    .description("Число событий, ожидающих обработки в полосе")
+                    .tag("lane", String.valueOf(i))
+                    .register(meterRegistry);
+            Thread worker = new Thread(() -> drain(lane), "outbox-lane-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Шина событий запущена: {} полос по {} событий, обработчики: {}", laneCount, laneCapacity,
+                this.handlers.stream().map(DomainEventHandler::name).toList());
+    }
+
+    /**
+     * Ставит событие в полосу его агрегата. Возвращает false, если полоса не освободилась
+     * за отведённое время — тогда событие остаётся в outbox до следующей попытки.
+     */
+    public boolean offer(DomainEvent event, Duration timeout) {
+        try {
+            return lanes.get(laneOf(event)).offer(event, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Идентификаторы событий, обработанных с прошлого вызова.
+     */
+    public List<Long> drainProcessed() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = processed.poll()) != null) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private int laneOf(DomainEvent event) {
+        return Math.floorMod(Objects.hash(event.aggregateType(), event.aggregateId()), lanes.size());
+    }
+
+    private void drain(BlockingQueue<DomainEvent> lane) {
+        while (running) {
+            DomainEvent event;
+            try {
+                event = lane.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            deliver(event);
+            processed.add(event.id());
+            deliveryLag.record(Duration.between(event.createdAt(), LocalDateTime.now()));
+        }
+    }
+
+    private void deliver(DomainEvent event) {
+        for (DomainEventHandler handler : handlers) {
+            String outcome = "success";
+            try {
+                handler.handle(event);
+            } catch (RuntimeException e) {
+                // Повтор не поможет ошибке в обработчике и остановил бы всю полосу
+                outcome = "failure";
+                log.error("Обработчик {} не смог обработать событие {} {} для {} {}", handler.name(), event.id(),
+                        event.eventType(), event.aggregateType(), event.aggregateId(), e);
+            }
+            Counter.builder("shareit.outbox.handled")
+                    .tag("handler", handler.name())
+                    .tag("event", event.eventType().name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+}
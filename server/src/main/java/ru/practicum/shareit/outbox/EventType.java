@@ -0,0 +1,21 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum EventType {
+    BOOKING_CREATED(AggregateType.BOOKING),
+    BOOKING_APPROVED(AggregateType.BOOKING),
+    BOOKING_REJECTED(AggregateType.BOOKING),
+    // Бронирования и вещи удаляются только при очистке данных удалённого пользователя
+    BOOKING_DELETED(AggregateType.BOOKING),
+    ITEM_CREATED(AggregateType.ITEM),
+    ITEM_UPDATED(AggregateType.ITEM),
+    ITEM_DELETED(AggregateType.ITEM),
+    // Комментарий относится к вещи, поэтому упорядочивается вместе с её событиями
+    COMMENT_ADDED(AggregateType.ITEM);
+
+    private final AggregateType aggregateType;
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Запись событий в outbox. Вызывается только внутри транзакции, изменяющей агрегат,
+ * поэтому событие фиксируется тогда и только тогда, когда фиксируется само изменение.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(EventType eventType, Long aggregateId, Map<String, Object> payload) {
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(eventType.getAggregateType())
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build());
+        log.trace("Событие {} для {} {} записано в outbox с ID {}", eventType, eventType.getAggregateType(),
+                aggregateId, event.getId());
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Догоняет изменения по outbox для заданий, которые держат производные данные: решает,
+ * нужен ли полный пересчёт, и отдаёт события агрегата после водяного знака. Полный пересчёт
+ * выполняется без сохранённого состояния, раз в full-rebuild-interval и если события могли
+ * быть удалены из outbox до обработки.
+ */
+public class OutboxCatchUp {
+    private final OutboxEventRepository outboxEventRepository;
+    private final AggregateType aggregateType;
+    private final Duration fullRebuildInterval;
+    private final Duration retention;
+    private final Duration settle;
+
+    public OutboxCatchUp(OutboxEventRepository outboxEventRepository,
+                         AggregateType aggregateType,
+                         Duration fullRebuildInterval,
+                         OutboxProperties properties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.aggregateType = aggregateType;
+        this.fullRebuildInterval = fullRebuildInterval;
+        this.retention = properties.getRetention();
+        this.settle = properties.getSettle();
+    }
+
+    public boolean needsRebuild(OutboxWatermark watermark, LocalDateTime now) {
+        return watermark == null
+                || watermark.getLastFullRunAt().isBefore(now.minus(fullRebuildInterval))
+                || watermark.getLastRunAt().isBefore(now.minus(retention));
+    }
+
+    /**
+     * Выполняет полный пересчёт или передаёт в update события после водяного знака
+     * и возвращает новый водяной знак.
+     */
+    public OutboxWatermark run(OutboxWatermark watermark, LocalDateTime now,
+                               Runnable rebuild, Consumer<List<OutboxEvent>> update) {
+        // Максимум читается до выборки: всё, что запишут позже, войдёт в следующий запуск
+        Long maxEventId = outboxEventRepository.findMaxId();
+        OutboxWatermark next;
+        if (needsRebuild(watermark, now)) {
+            rebuild.run();
+            next = new OutboxWatermark(0, now, now);
+        } else {
+            update.accept(outboxEventRepository.findChangedSince(aggregateType, watermark.getLastEventId(),
+                    watermark.getLastRunAt().minus(settle)));
+            next = new OutboxWatermark(watermark.getLastEventId(), now, watermark.getLastFullRunAt());
+        }
+        if (maxEventId != null && maxEventId > next.getLastEventId()) {
+            next.setLastEventId(maxEventId);
+        }
+        return next;
+    }
+}
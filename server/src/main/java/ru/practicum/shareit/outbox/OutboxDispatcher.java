@@ -0,0 +1,105 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит события из outbox в шину пачками. На PostgreSQL выборка идёт под
+ * транзакционной advisory-блокировкой, чтобы узлы не забирали события одного агрегата
+ * одновременно.
+ */
+@Slf4j
+public class OutboxDispatcher {
+    private static final long DISPATCH_LOCK_KEY = 0x5348415245L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventBus eventBus;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private final OutboxProperties properties;
+    private final Counter dispatched;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            EventBus eventBus,
+                            TransactionTemplate transactionTemplate,
+                            JdbcTemplate jdbcTemplate,
+                            boolean postgres,
+                            OutboxProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventBus = eventBus;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = postgres;
+        this.properties = properties;
+        this.dispatched = Counter.builder("shareit.outbox.dispatched")
+                .description("События, переданные из outbox в шину")
+                .register(meterRegistry);
+    }
+
+    public void dispatch() {
+        try {
+            acknowledge();
+            Integer claimed;
+            do {
+                claimed = transactionTemplate.execute(status -> claimBatch());
+            } while (claimed != null && claimed == properties.getBatchSize());
+        } catch (DataAccessException e) {
+            log.warn("Не удалось передать события из outbox: {}", e.getMessage());
+        }
+    }
+
+    public void purge() {
+        try {
+            Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteProcessedBefore(
+                    LocalDateTime.now().minus(properties.getRetention())));
+            if (deleted != null && deleted > 0) {
+                log.info("Удалено {} обработанных событий outbox", deleted);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось очистить outbox: {}", e.getMessage());
+        }
+    }
+
+    private void acknowledge() {
+        List<Long> ids = eventBus.drainProcessed();
+        if (!ids.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.markProcessed(ids, LocalDateTime.now()));
+            log.trace("Отмечено обработанными {} событий outbox", ids.size());
+        }
+    }
+
+    private int claimBatch() {
+        if (postgres && !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, DISPATCH_LOCK_KEY))) {
+            log.trace("Outbox разбирает другой узел");
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.findDispatchable(
+                now.minus(properties.getLease()), PageRequest.of(0, properties.getBatchSize()));
+        int offered = 0;
+        for (OutboxEvent event : events) {
+            if (!eventBus.offer(DomainEvent.from(event), properties.getOfferTimeout())) {
+                // Остальные события пачки ждут следующего цикла, чтобы не нарушить порядок
+                log.debug("Полоса шины заполнена, передано {} из {} событий", offered, events.size());
+                break;
+            }
+            event.setDispatchedAt(now);
+            offered++;
+        }
+        dispatched.increment(offered);
+        return offered;
+    }
+}
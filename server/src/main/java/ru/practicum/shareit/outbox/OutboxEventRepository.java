@@ -0,0 +1,53 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Необработанные события в порядке записи. События агрегата, у которого есть событие
+     * в обработке с неистёкшей арендой, пропускаются — так сохраняется порядок внутри агрегата.
+     */
+    @Query("SELECT e FROM OutboxEvent e " +
+           "WHERE e.processedAt IS NULL " +
+           "AND (e.dispatchedAt IS NULL OR e.dispatchedAt < :leaseExpiry) " +
+           "AND NOT EXISTS (SELECT 1 FROM OutboxEvent p " +
+           "WHERE p.aggregateType = e.aggregateType AND p.aggregateId = e.aggregateId " +
+           "AND p.processedAt IS NULL AND p.dispatchedAt >= :leaseExpiry) " +
+           "ORDER BY e.id")
+    List<OutboxEvent> findDispatchable(LocalDateTime leaseExpiry, Pageable pageable);
+
+    List<OutboxEvent> findByAggregateTypeAndIdGreaterThanOrderById(AggregateType aggregateType, Long id,
+                                                                   Pageable pageable);
+
+    /**
+     * События агрегата после водяного знака. События, записанные после {@code since}, берутся
+     * повторно: транзакция с меньшим id могла зафиксироваться позже.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.aggregateType = :aggregateType " +
+           "AND (e.id > :afterEventId OR e.createdAt >= :since) ORDER BY e.id")
+    List<OutboxEvent> findChangedSince(AggregateType aggregateType, long afterEventId, LocalDateTime since);
+
+    @Query("SELECT MAX(e.id) FROM OutboxEvent e")
+    Long findMaxId();
+
+    @Query("SELECT MIN(e.id) FROM OutboxEvent e WHERE e.aggregateType = :aggregateType")
+    Long findMinIdByAggregateType(AggregateType aggregateType);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(Collection<Long> ids, LocalDateTime processedAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(LocalDateTime before);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.outbox")
+public class OutboxProperties {
+    private Duration pollInterval = Duration.ofMillis(200);
+    private int batchSize = 200;
+    private int lanes = 4;
+    private int laneCapacity = 1024;
+    private Duration offerTimeout = Duration.ofMillis(50);
+    private Duration lease = Duration.ofMinutes(5);
+    private Duration retention = Duration.ofHours(24);
+    private Duration purgeInterval = Duration.ofMinutes(10);
+    // Запас при догонке по outbox на транзакции, зафиксированные позже записи события
+    private Duration settle = Duration.ofMinutes(1);
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Приводит CHECK-ограничение на outbox_events.event_type к перечислению {@link EventType}
+ * (PostgreSQL). Hibernate при ddl-auto=update создаёт ограничение вместе с таблицей,
+ * но не расширяет его при добавлении новых типов событий. Новое ограничение добавляется
+ * NOT VALID и проверяется отдельной командой, которая не блокирует запись в outbox.
+ */
+@Slf4j
+public class OutboxSchema {
+    private static final String TABLE = "outbox_events";
+    private static final String EVENT_TYPE_CHECK = "outbox_events_event_type_check";
+    private static final long LOCK_KEY = 0x4F5554424F58L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxSchema(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void update() {
+        Boolean replaced = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, LOCK_KEY);
+            if (coversAllTypes()) {
+                return false;
+            }
+            String types = Arrays.stream(EventType.values())
+                    .map(type -> "'" + type.name() + "'")
+                    .collect(Collectors.joining(", "));
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP CONSTRAINT IF EXISTS " + EVENT_TYPE_CHECK);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + EVENT_TYPE_CHECK
+                    + " CHECK (event_type IN (" + types + ")) NOT VALID");
+            return true;
+        });
+        if (Boolean.TRUE.equals(replaced)) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " VALIDATE CONSTRAINT " + EVENT_TYPE_CHECK);
+            log.info("Ограничение {} расширено до типов событий {}", EVENT_TYPE_CHECK,
+                    Arrays.toString(EventType.values()));
+        }
+    }
+
+    private boolean coversAllTypes() {
+        List<String> definitions = jdbcTemplate.queryForList("SELECT pg_get_constraintdef(oid) FROM pg_constraint "
+                + "WHERE conrelid = to_regclass(?) AND conname = ?", String.class, TABLE, EVENT_TYPE_CHECK);
+        return !definitions.isEmpty() && Arrays.stream(EventType.values())
+                .allMatch(type -> definitions.get(0).contains("'" + type.name() + "'"));
+    }
+}
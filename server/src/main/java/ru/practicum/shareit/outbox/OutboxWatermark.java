@@ -0,0 +1,27 @@
+package ru.practicum.shareit.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Докуда задание обработало события outbox и когда выполнялся полный пересчёт.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class OutboxWatermark {
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    @Column(name = "last_run_at", nullable = false)
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "last_full_run_at", nullable = false)
+    private LocalDateTime lastFullRunAt;
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.api.ApiHeaders;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 
@@ -33,9 +34,14 @@ public class ItemRequestController {
     public ResponseEntity<List<ItemRequestResponseDto>> getAllRequests(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        List<ItemRequestResponseDto> requests = itemRequestService.getAllRequests(userId, from, size);
-        return ResponseEntity.ok(requests);
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        ItemRequestFeed feed = itemRequestService.getAllRequests(userId, from, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (feed.nextCursor() != null) {
+            response.header(ApiHeaders.NEXT_CURSOR, feed.nextCursor());
+        }
+        return response.body(feed.requests());
     }
 
     @GetMapping("/{requestId}")
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+
+import java.util.List;
+
+/**
+ * Страница ленты запросов и курсор следующей страницы (null, если лента закончилась).
+ */
+public record ItemRequestFeed(List<ItemRequestResponseDto> requests, String nextCursor) {
+}
@@ -5,12 +5,21 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long requesterId);
 
-    @Query("SELECT ir FROM ItemRequest ir WHERE ir.requester.id != :requesterId ORDER BY ir.created DESC")
+    @Query("SELECT ir FROM ItemRequest ir WHERE ir.requester.id <> :requesterId ORDER BY ir.created DESC, ir.id DESC")
     List<ItemRequest> findAllByRequesterIdNot(Long requesterId, Pageable pageable);
-}
\ No newline at end of file
+
+    // Продолжение ленты после курсора: индекс (created, id) позволяет начать сразу с нужной позиции
+    @Query("SELECT ir FROM ItemRequest ir " +
+            "WHERE ir.requester.id <> :requesterId " +
+            "AND (ir.created < :created OR (ir.created = :created AND ir.id < :id)) " +
+            "ORDER BY ir.created DESC, ir.id DESC")
+    List<ItemRequest> findAllByRequesterIdNotBefore(Long requesterId, LocalDateTime created, Long id,
+                                                    Pageable pageable);
+}
@@ -10,7 +10,7 @@ public interface ItemRequestService {
 
     List<ItemRequestResponseDto> getUserRequests(Long userId);
 
-    List<ItemRequestResponseDto> getAllRequests(Long userId, int from, int size);
+    ItemRequestFeed getAllRequests(Long userId, int from, int size, String cursor);
 
     ItemRequestResponseDto getRequestById(Long requestId, Long userId);
 }
\ No newline at end of file
@@ -1,33 +1,42 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemMatchDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.matching.ItemMatcher;
+import ru.practicum.shareit.request.matching.ItemRequestMatch;
+import ru.practicum.shareit.request.matching.ItemRequestMatchRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemRequestMatchRepository itemRequestMatchRepository;
+    private final ItemMatcher itemMatcher;
 
     @Override
     @Transactional
@@ -54,7 +63,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest savedRequest = itemRequestRepository.save(itemRequest);
         log.info("Запрос успешно создан с ID: {}, пользователь ID: {}", savedRequest.getId(), userId);
 
-        return toResponseDtoWithItems(savedRequest);
+        List<ItemRequestMatch> matches = itemRequestMatchRepository.saveAll(
+                itemMatcher.match(savedRequest.getId(), savedRequest.getDescription(), userId));
+        log.debug("Для запроса ID: {} подобрано {} вещей", savedRequest.getId(), matches.size());
+
+        ItemRequestResponseDto dto = toResponseDtoWithItems(savedRequest);
+        dto.setMatches(toMatchDtos(matches));
+        return dto;
     }
 
     @Override
@@ -70,14 +85,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<ItemRequest> requests = itemRequestRepository.findByRequesterIdOrderByCreatedDesc(userId);
         log.debug("Найдено {} запросов для пользователя ID: {}", requests.size(), userId);
 
-        return requests.stream()
-                .map(this::toResponseDtoWithItems)
-                .collect(Collectors.toList());
+        return toResponseDtosWithItems(requests);
     }
 
     @Override
-    public List<ItemRequestResponseDto> getAllRequests(Long userId, int from, int size) {
-        log.info("Запрос на получение всех запросов, пользователь ID: {}, from: {}, size: {}", userId, from, size);
+    public ItemRequestFeed getAllRequests(Long userId, int from, int size, String cursor) {
+        log.info("Запрос на получение всех запросов, пользователь ID: {}, from: {}, size: {}, cursor: {}",
+                userId, from, size, cursor);
 
         userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -89,13 +103,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             throw new IllegalArgumentException("Неверные параметры пагинации");
         }
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "created"));
-        List<ItemRequest> requests = itemRequestRepository.findAllByRequesterIdNot(userId, pageable);
+        List<ItemRequest> requests;
+        if (cursor != null) {
+            RequestFeedCursor position = RequestFeedCursor.decode(cursor);
+            requests = itemRequestRepository.findAllByRequesterIdNotBefore(userId, position.created(),
+                    position.id(), PageRequest.of(0, size));
+        } else {
+            // Смещение from оставлено для старых клиентов; новые листают ленту курсором
+            requests = itemRequestRepository.findAllByRequesterIdNot(userId, PageRequest.of(from / size, size));
+        }
         log.debug("Найдено {} запросов других пользователей", requests.size());
 
-        return requests.stream()
-                .map(this::toResponseDtoWithItems)
-                .collect(Collectors.toList());
+        String nextCursor = requests.size() < size ? null
+                : RequestFeedCursor.of(requests.get(requests.size() - 1)).encode();
+        return new ItemRequestFeed(toResponseDtosWithItems(requests), nextCursor);
     }
 
     @Override
@@ -114,7 +135,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                     return new NotFoundException("Запрос не найден");
                 });
 
-        return toResponseDtoWithItems(itemRequest);
+        ItemRequestResponseDto dto = toResponseDtoWithItems(itemRequest);
+        dto.setMatches(toMatchDtos(itemRequestMatchRepository.findByRequestIdOrderByScoreDesc(requestId)));
+        return dto;
     }
 
     private ItemRequestResponseDto toResponseDtoWithItems(ItemRequest itemRequest) {
@@ -125,4 +148,45 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .collect(Collectors.toList()));
         return dto;
     }
-}
\ No newline at end of file
+
+    private List<ItemRequestResponseDto> toResponseDtosWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findByRequestIdIn(
+                        requests.stream().map(ItemRequest::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        return requests.stream()
+                .map(itemRequest -> {
+                    ItemRequestResponseDto dto = ItemRequestMapper.toResponseDto(itemRequest);
+                    dto.setItems(itemsByRequest.getOrDefault(itemRequest.getId(), List.of()).stream()
+                            .map(ItemMapper::toDto)
+                            .collect(Collectors.toList()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private List<ItemMatchDto> toMatchDtos(List<ItemRequestMatch> matches) {
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(matches.stream().map(ItemRequestMatch::getItemId).toList())
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return matches.stream()
+                .filter(match -> items.containsKey(match.getItemId()))
+                .map(match -> {
+                    Item item = items.get(match.getItemId());
+                    return ItemMatchDto.builder()
+                            .itemId(item.getId())
+                            .name(item.getName())
+                            .description(item.getDescription())
+                            .available(item.getAvailable())
+                            .score(match.getScore())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в ленте запросов других пользователей: последний отданный запрос по (created, id).
+ * Клиенту передаётся в непрозрачном виде.
+ */
+record RequestFeedCursor(LocalDateTime created, long id) {
+    private static final char SEPARATOR = '_';
+
+    static RequestFeedCursor of(ItemRequest itemRequest) {
+        return new RequestFeedCursor(itemRequest.getCreated(), itemRequest.getId());
+    }
+
+    static RequestFeedCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Некорректный курсор ленты запросов");
+            }
+            return new RequestFeedCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Некорректный курсор ленты запросов");
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((created.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
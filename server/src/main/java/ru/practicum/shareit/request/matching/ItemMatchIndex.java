@@ -0,0 +1,120 @@
+package ru.practicum.shareit.request.matching;
+
+import ru.practicum.shareit.util.LongIntHashMap;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс доступных вещей: терм → (вещь → частота). Термы названия
+ * учитываются дважды. Поиск ранжирует вещи по BM25.
+ */
+class ItemMatchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 2;
+
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<String, LongIntHashMap> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    void put(long itemId, long ownerId, String name, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        TextAnalyzer.terms(name).forEach(term -> frequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        TextAnalyzer.terms(description).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new LongIntHashMap())
+                    .addTo(itemId, tf));
+            items.put(itemId, new IndexedItem(ownerId,
+                    frequencies.keySet().toArray(new String[0]),
+                    frequencies.values().stream().mapToInt(Integer::intValue).toArray(),
+                    length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Лучшие по BM25 вещи для текста, кроме вещей указанного владельца.
+     */
+    List<Candidate> match(String text, long excludedOwnerId, int limit) {
+        Set<String> terms = new HashSet<>(TextAnalyzer.terms(text));
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            if (items.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / items.size());
+            for (String term : terms) {
+                LongIntHashMap posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (items.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((itemId, tf) -> {
+                    IndexedItem item = items.get(itemId);
+                    if (item.ownerId() != excludedOwnerId) {
+                        double norm = K1 * (1 - B + B * item.length() / averageLength);
+                        scores.merge(itemId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .map(entry -> new Candidate(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingDouble(Candidate::score).reversed()
+                        .thenComparing(Candidate::itemId))
+                .limit(limit)
+                .toList();
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long itemId) {
+        IndexedItem previous = items.remove(itemId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (int i = 0; i < previous.terms().length; i++) {
+            LongIntHashMap posting = postings.get(previous.terms()[i]);
+            posting.addTo(itemId, -previous.frequencies()[i]);
+            if (posting.isEmpty()) {
+                postings.remove(previous.terms()[i]);
+            }
+        }
+    }
+
+    record Candidate(long itemId, double score) {
+    }
+
+    // Термы и частоты хранятся параллельными массивами: нужны только для удаления из индекса
+    private record IndexedItem(long ownerId, String[] terms, int[] frequencies, int length) {
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.OutboxCatchUp;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxWatermark;
+import ru.practicum.shareit.sql.StreamingQueries;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Подбирает существующие вещи под текст запроса по индексу в памяти. Индекс каждого узла
+ * догоняет изменения вещей по событиям ITEM в outbox после водяного знака и периодически
+ * строится заново.
+ */
+@Slf4j
+public class ItemMatcher {
+    private static final String ITEMS_SQL = "SELECT id, owner_id, name, description, available FROM items";
+
+    private final OutboxCatchUp catchUp;
+    private final StreamingQueries queries;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemMatchingProperties properties;
+    private volatile ItemMatchIndex index;
+    private OutboxWatermark watermark;
+
+    public ItemMatcher(OutboxCatchUp catchUp,
+                       StreamingQueries queries,
+                       TransactionTemplate transactionTemplate,
+                       ItemMatchingProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.catchUp = catchUp;
+        this.queries = queries;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        Gauge.builder("shareit.request.matching.items", this, m -> m.index != null ? m.index.size() : 0)
+                .description("Вещи в индексе подбора по запросам")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Лучшие совпадения для текста запроса, без вещей самого автора, в виде ещё не сохранённых
+     * записей. Пока индекс не построен, список пуст.
+     */
+    public List<ItemRequestMatch> match(long requestId, String text, long requesterId) {
+        ItemMatchIndex current = index;
+        if (current == null) {
+            return List.of();
+        }
+        return current.match(text, requesterId, properties.getMaxCandidates()).stream()
+                .map(candidate -> ItemRequestMatch.builder()
+                        .requestId(requestId)
+                        .itemId(candidate.itemId())
+                        .score(candidate.score())
+                        .build())
+                .toList();
+    }
+
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            OutboxWatermark current = index != null ? watermark : null;
+            watermark = transactionTemplate.execute(status -> catchUp.run(current, now, this::rebuild, this::update));
+        } catch (DataAccessException e) {
+            log.warn("Не удалось обновить индекс подбора вещей: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        ItemMatchIndex next = new ItemMatchIndex();
+        queries.query(ITEMS_SQL + " WHERE available = TRUE", indexer(next));
+        index = next;
+        log.info("Индекс подбора вещей построен: {} вещей", next.size());
+    }
+
+    private void update(List<OutboxEvent> events) {
+        List<Long> itemIds = events.stream().map(OutboxEvent::getAggregateId).distinct().toList();
+        queries.forEachBatch(itemIds, batch -> {
+            Set<Long> deleted = new HashSet<>(batch);
+            RowCallbackHandler indexer = indexer(index);
+            queries.queryByIds(ITEMS_SQL + " WHERE id IN (:ids)", batch, rs -> {
+                deleted.remove(rs.getLong("id"));
+                indexer.processRow(rs);
+            });
+            // Удалённых вещей нет в выборке
+            deleted.forEach(index::remove);
+        });
+        if (!itemIds.isEmpty()) {
+            log.debug("Индекс подбора вещей обновлён для {} вещей", itemIds.size());
+        }
+    }
+
+    // Недоступные вещи убираются из индекса
+    private static RowCallbackHandler indexer(ItemMatchIndex target) {
+        return rs -> {
+            long itemId = rs.getLong("id");
+            if (rs.getBoolean("available")) {
+                target.put(itemId, rs.getLong("owner_id"), rs.getString("name"), rs.getString("description"));
+            } else {
+                target.remove(itemId);
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.request-matching")
+public class ItemMatchingProperties {
+    private Duration refreshInterval = Duration.ofSeconds(5);
+    private Duration fullRebuildInterval = Duration.ofHours(24);
+    private int maxCandidates = 10;
+    private int fetchSize = 1000;
+    private int batchSize = 500;
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.request.matching;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Вещь, предложенная для запроса при его создании.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_request_matches", indexes = @Index(name = "idx_item_request_matches_request",
+        columnList = "request_id, score"))
+public class ItemRequestMatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "score", nullable = false)
+    private double score;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.matching;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ItemRequestMatchRepository extends JpaRepository<ItemRequestMatch, Long> {
+
+    List<ItemRequestMatch> findByRequestIdOrderByScoreDesc(Long requestId);
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Разбивает текст на нормализованные термы: нижний регистр, без стоп-слов и с отброшенными
+ * типичными окончаниями, чтобы «дрель», «дрели» и «дрелью» совпадали.
+ */
+final class TextAnalyzer {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_STEM = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "и", "в", "во", "на", "для", "с", "со", "по", "из", "к", "от", "до", "не", "или", "а", "но",
+            "что", "как", "мне", "нужно", "нужна", "нужен", "нужны", "очень", "есть", "бы", "же",
+            "the", "a", "an", "for", "of", "to", "and", "or", "with", "in", "on", "need", "my");
+    // Сначала длинные окончания
+    private static final List<String> ENDINGS = List.of(
+            "ами", "ями", "ого", "его", "ому", "ему", "ыми", "ими",
+            "ов", "ев", "ей", "ой", "ий", "ый", "ая", "яя", "ое", "ее", "ые", "ие", "ую", "юю", "ью", "ом", "ем",
+            "ах", "ях", "es", "а", "я", "о", "е", "ы", "и", "у", "ю", "ь", "й", "s", "e");
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (word.length() > 1 && !STOP_WORDS.contains(word)) {
+                terms.add(stem(word));
+            }
+        }
+        return terms;
+    }
+
+    private static String stem(String word) {
+        for (String ending : ENDINGS) {
+            if (word.endsWith(ending) && word.length() - ending.length() >= MIN_STEM) {
+                return word.substring(0, word.length() - ending.length());
+            }
+        }
+        return word;
+    }
+}
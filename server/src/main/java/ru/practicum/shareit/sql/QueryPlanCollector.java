@@ -0,0 +1,90 @@
+package ru.practicum.shareit.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryPlanCollector implements DisposableBean {
+    private final SlowQueryProperties properties;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "slow-query-explain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public void collectSampled(DataSource dataSource, SlowQuery slowQuery, List<ParameterSetOperation> parameters) {
+        SlowQueryProperties.Explain explain = properties.getExplain();
+        if (!explain.isEnabled()
+                || !slowQuery.getSql().trim().toLowerCase(Locale.ROOT).startsWith("select")
+                || ThreadLocalRandom.current().nextDouble() >= explain.getSampleRate()) {
+            return;
+        }
+        try {
+            executor.execute(() -> slowQuery.setPlan(explain(dataSource, slowQuery.getSql(), parameters)));
+        } catch (RejectedExecutionException e) {
+            log.debug("Сбор плана запроса пропущен: {}", e.getMessage());
+        }
+    }
+
+    private String explain(DataSource dataSource, String sql, List<ParameterSetOperation> parameters) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return null;
+            }
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL statement_timeout = "
+                        + properties.getExplain().getStatementTimeout().toMillis());
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                for (ParameterSetOperation operation : parameters) {
+                    Object[] args = operation.getArgs();
+                    if (args.length > 1 && args[0] instanceof Integer index) {
+                        if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+                            statement.setNull(index, (Integer) args[1]);
+                        } else {
+                            statement.setObject(index, args[1]);
+                        }
+                    }
+                }
+                StringJoiner plan = new StringJoiner("\n");
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+                return plan.toString();
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            log.warn("Не удалось получить план запроса: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.sql;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.lang.Nullable;
+
+public final class RepositoryMethodContext {
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryMethodContext() {
+    }
+
+    @Nullable
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static MethodInterceptor interceptor(Class<?> repositoryInterface) {
+        String repository = repositoryInterface.getSimpleName();
+        return invocation -> {
+            String previous = CURRENT.get();
+            CURRENT.set(repository + "." + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.sql;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQuery {
+    private LocalDateTime timestamp;
+    private String sql;
+    private List<String> parameters;
+    private long durationMs;
+    private String repositoryMethod;
+    private boolean success;
+    private volatile String plan;
+}
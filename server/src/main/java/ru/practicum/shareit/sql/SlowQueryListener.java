@@ -0,0 +1,83 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+public class SlowQueryListener implements QueryExecutionListener {
+    private final DataSource targetDataSource;
+    private final SlowQueryProperties properties;
+    private final SlowQueryLog slowQueryLog;
+    private final QueryPlanCollector planCollector;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!properties.isEnabled() || execInfo.getElapsedTime() < properties.getThreshold().toMillis()) {
+            return;
+        }
+        String repositoryMethod = RepositoryMethodContext.current();
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<ParameterSetOperation> parameters = queryInfo.getParametersList().isEmpty()
+                    ? List.of()
+                    : queryInfo.getParametersList().get(0);
+            SlowQuery slowQuery = SlowQuery.builder()
+                    .timestamp(LocalDateTime.now())
+                    .sql(queryInfo.getQuery())
+                    .parameters(redact(parameters))
+                    .durationMs(execInfo.getElapsedTime())
+                    .repositoryMethod(repositoryMethod)
+                    .success(execInfo.isSuccess())
+                    .build();
+            slowQueryLog.add(slowQuery);
+
+            Counter.builder("shareit.sql.slow")
+                    .tag("repository.method", repositoryMethod != null ? repositoryMethod : "none")
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Медленный SQL-запрос ({} мс) из {}: {}",
+                    execInfo.getElapsedTime(), repositoryMethod, queryInfo.getQuery());
+
+            planCollector.collectSampled(targetDataSource, slowQuery, parameters);
+        }
+    }
+
+    private List<String> redact(List<ParameterSetOperation> parameters) {
+        return parameters.stream()
+                .filter(operation -> operation.getArgs().length > 1)
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                // У setNull вторым аргументом передаётся код типа JDBC, а не значение
+                .map(operation -> ParameterSetOperation.isSetNullParameterOperation(operation)
+                        ? "null" : redactValue(operation.getArgs()[1]))
+                .collect(Collectors.toList());
+    }
+
+    private String redactValue(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?>
+                || value instanceof TemporalAccessor || value instanceof java.util.Date) {
+            return value.toString();
+        }
+        return value.getClass().getSimpleName() + "(***)";
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class SlowQueryLog {
+    private final SlowQueryProperties properties;
+    private final Deque<SlowQuery> queries = new ArrayDeque<>();
+
+    public synchronized void add(SlowQuery query) {
+        while (queries.size() >= properties.getCapacity()) {
+            queries.removeLast();
+        }
+        queries.addFirst(query);
+    }
+
+    public synchronized List<SlowQuery> getAll() {
+        return new ArrayList<>(queries);
+    }
+
+    public synchronized void clear() {
+        queries.clear();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql.slow-query")
+public class SlowQueryProperties {
+    private boolean enabled = true;
+    private Duration threshold = Duration.ofMillis(200);
+    private int capacity = 200;
+    private Explain explain = new Explain();
+
+    @Getter
+    @Setter
+    public static class Explain {
+        // EXPLAIN ANALYZE повторно выполняет запрос, поэтому собирается только для SELECT и только на Postgres
+        private boolean enabled = false;
+        private double sampleRate = 0.1;
+        private Duration statementTimeout = Duration.ofSeconds(5);
+    }
+}
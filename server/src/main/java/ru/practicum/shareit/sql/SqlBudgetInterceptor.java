@@ -0,0 +1,65 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+    private final SqlStatementCounter counter;
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        String pattern = resolvePattern(request);
+        counter.start(request.getMethod() + " " + pattern,
+                properties.limitFor(pattern),
+                properties.getMode() == SqlBudgetProperties.Mode.FAIL);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        SqlStatementCounter.Budget budget = counter.stop();
+        if (budget == null) {
+            return;
+        }
+        String pattern = resolvePattern(request);
+        DistributionSummary.builder("shareit.sql.statements")
+                .description("Количество SQL-запросов на один HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(budget.getCount());
+
+        if (budget.isExceeded()) {
+            Counter.builder("shareit.sql.budget.violations")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Превышен лимит SQL-запросов для {}: выполнено {}, лимит {}",
+                    budget.getEndpoint(), budget.getCount(), budget.getLimit());
+        }
+    }
+
+    private String resolvePattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql.budget")
+public class SqlBudgetProperties {
+    private boolean enabled = true;
+    private int defaultLimit = 30;
+    private Mode mode = Mode.LOG;
+    private String header = "X-Sql-Statement-Count";
+    // Ключ — шаблон пути, например shareit.sql.budget.limits.[/items/{itemId}]=5
+    private Map<String, Integer> limits = new HashMap<>();
+
+    public int limitFor(String pattern) {
+        return limits.getOrDefault(pattern, defaultLimit);
+    }
+
+    public enum Mode {
+        LOG,
+        FAIL
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+public class SqlProxyPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<SlowQueryProperties> properties;
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+    private final ObjectProvider<QueryPlanCollector> planCollector;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SqlProxyPostProcessor(ObjectProvider<SlowQueryProperties> properties,
+                                 ObjectProvider<SlowQueryLog> slowQueryLog,
+                                 ObjectProvider<QueryPlanCollector> planCollector,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.slowQueryLog = slowQueryLog;
+        this.planCollector = planCollector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0,
+                            RepositoryMethodContext.interceptor(repositoryInformation.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            SlowQueryListener listener = new SlowQueryListener(dataSource,
+                    properties.getObject(),
+                    slowQueryLog.getObject(),
+                    planCollector.getObject(),
+                    meterRegistry.getObject());
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener)
+                    .build();
+        }
+        return bean;
+    }
+}
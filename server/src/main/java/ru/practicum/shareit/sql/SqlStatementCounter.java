@@ -0,0 +1,64 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class SqlStatementCounter {
+    private final ThreadLocal<Budget> current = new ThreadLocal<>();
+
+    public void start(String endpoint, int limit, boolean failOnExceed) {
+        current.set(new Budget(endpoint, limit, failOnExceed));
+    }
+
+    public int increment() {
+        Budget budget = current.get();
+        if (budget == null) {
+            return 0;
+        }
+        budget.count++;
+        return budget.count;
+    }
+
+    public Budget current() {
+        return current.get();
+    }
+
+    public Budget stop() {
+        Budget budget = current.get();
+        current.remove();
+        return budget;
+    }
+
+    public static final class Budget {
+        private final String endpoint;
+        private final int limit;
+        private final boolean failOnExceed;
+        private int count;
+
+        private Budget(String endpoint, int limit, boolean failOnExceed) {
+            this.endpoint = endpoint;
+            this.limit = limit;
+            this.failOnExceed = failOnExceed;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public boolean isFailOnExceed() {
+            return failOnExceed;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public boolean isExceeded() {
+            return count > limit;
+        }
+    }
+}
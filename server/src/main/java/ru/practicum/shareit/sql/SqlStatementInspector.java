@@ -0,0 +1,22 @@
+package ru.practicum.shareit.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.SqlBudgetExceededException;
+
+@Component
+@RequiredArgsConstructor
+public class SqlStatementInspector implements StatementInspector {
+    private final SqlStatementCounter counter;
+
+    @Override
+    public String inspect(String sql) {
+        int count = counter.increment();
+        SqlStatementCounter.Budget budget = counter.current();
+        if (budget != null && budget.isFailOnExceed() && count == budget.getLimit() + 1) {
+            throw new SqlBudgetExceededException(budget.getEndpoint(), budget.getLimit());
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Потоковое чтение больших выборок для фоновых заданий. Размер выборки включает серверный
+ * курсор PostgreSQL, только пока запрос выполняется внутри транзакции. Списки id передаются
+ * параметром {@code :ids} и делятся на пачки по batch-size.
+ */
+public class StreamingQueries {
+    private static final String IDS = "ids";
+
+    private final JdbcTemplate cursor;
+    private final NamedParameterJdbcTemplate named;
+    private final int batchSize;
+
+    public StreamingQueries(DataSource dataSource, int fetchSize, int batchSize) {
+        this.cursor = new JdbcTemplate(dataSource);
+        this.cursor.setFetchSize(fetchSize);
+        this.named = new NamedParameterJdbcTemplate(cursor);
+        this.batchSize = batchSize;
+    }
+
+    public void query(String sql, RowCallbackHandler handler) {
+        cursor.query(sql, handler);
+    }
+
+    public <T> Stream<T> stream(String sql, RowMapper<T> rowMapper) {
+        return cursor.queryForStream(sql, rowMapper);
+    }
+
+    public void queryByIds(String sql, List<Long> ids, RowCallbackHandler handler) {
+        named.query(sql, Map.of(IDS, ids), handler);
+    }
+
+    public <T> Stream<T> streamByIds(String sql, List<Long> ids, RowMapper<T> rowMapper) {
+        return named.queryForStream(sql, Map.of(IDS, ids), rowMapper);
+    }
+
+    public void forEachBatch(List<Long> ids, Consumer<List<Long>> action) {
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            action.accept(ids.subList(i, Math.min(i + batchSize, ids.size())));
+        }
+    }
+}
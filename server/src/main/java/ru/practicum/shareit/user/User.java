@@ -3,6 +3,8 @@ package ru.practicum.shareit.user;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,4 +21,8 @@ public class User {
 
     @Column(name = "email", nullable = false, unique = true, length = 512)
     private String email;
+
+    // Заполняется при удалении; сама строка удаляется после очистки связанных данных
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -34,6 +35,16 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{userId}/deletion")
+    public ResponseEntity<UserDeletionDto> getUserDeletion(@PathVariable Long userId) {
+        return ResponseEntity.ok(userService.getUserDeletion(userId));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserDto>> getUsersByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     @GetMapping
     public ResponseEntity<List<UserDto>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
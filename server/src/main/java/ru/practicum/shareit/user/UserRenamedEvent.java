@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+
+/**
+ * Публикуется внутри транзакции после смены имени пользователя.
+ */
+@Value
+public class UserRenamedEvent {
+    Long userId;
+    String name;
+}
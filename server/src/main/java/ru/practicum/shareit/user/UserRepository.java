@@ -1,11 +1,34 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Пользователи, помеченные удалёнными, не видны через репозиторий: их строки остаются
+ * в таблице только до окончания фоновой очистки связанных данных.
+ */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("SELECT u FROM User u WHERE u.email = :email AND u.deletedAt IS NULL")
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    @Override
+    @Query("SELECT u FROM User u WHERE u.id = :id AND u.deletedAt IS NULL")
+    Optional<User> findById(Long id);
+
+    @Override
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.id = :id AND u.deletedAt IS NULL")
+    boolean existsById(Long id);
+
+    @Override
+    @Query("SELECT u FROM User u WHERE u.deletedAt IS NULL")
+    List<User> findAll();
+
+    @Override
+    @Query("SELECT u FROM User u WHERE u.id IN :ids AND u.deletedAt IS NULL")
+    List<User> findAllById(Iterable<Long> ids);
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user;
 
+import ru.practicum.shareit.user.dto.UserDeletionDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -13,5 +14,9 @@ public interface UserService {
 
     void deleteUser(Long userId);
 
+    UserDeletionDto getUserDeletion(Long userId);
+
     List<UserDto> getAllUsers();
+
+    List<UserDto> getUsersByIds(List<Long> ids);
 }
\ No newline at end of file
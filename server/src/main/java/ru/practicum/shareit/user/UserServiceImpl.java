@@ -1,23 +1,44 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.CacheNames;
+import ru.practicum.shareit.cache.EntityChangedEvent;
+import ru.practicum.shareit.config.MetricsConfig;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.purge.UserPurge;
+import ru.practicum.shareit.user.purge.UserPurgeRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class UserServiceImpl implements UserService {
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final String DELETED_EMAIL_PREFIX = "deleted-";
+    private static final String DELETED_EMAIL_DOMAIN = "@shareit.invalid";
+
     private final UserRepository userRepository;
+    private final UserPurgeRepository userPurgeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -46,6 +67,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.USERS, key = "#userId")
     public UserDto getUser(Long userId) {
         log.debug("Запрос на получение пользователя ID: {}", userId);
 
@@ -72,6 +94,7 @@ public class UserServiceImpl implements UserService {
                 });
 
         boolean hasUpdates = false;
+        boolean renamed = false;
 
         if (userDto.getEmail() != null) {
             log.debug("Проверка нового email: {}", userDto.getEmail());
@@ -96,6 +119,7 @@ public class UserServiceImpl implements UserService {
                     userId, existingUser.getName(), userDto.getName());
             existingUser.setName(userDto.getName());
             hasUpdates = true;
+            renamed = true;
         }
 
         if (!hasUpdates) {
@@ -104,6 +128,10 @@ public class UserServiceImpl implements UserService {
 
         log.debug("Сохранение обновленного пользователя ID: {}", userId);
         User updatedUser = userRepository.save(existingUser);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.USER, userId));
+        if (renamed) {
+            eventPublisher.publishEvent(new UserRenamedEvent(userId, updatedUser.getName()));
+        }
 
         log.info("Пользователь ID: {} успешно обновлен", userId);
         return UserMapper.toUserDto(updatedUser);
@@ -114,13 +142,31 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long userId) {
         log.info("Запрос на удаление пользователя ID: {}", userId);
 
-        if (!userRepository.existsById(userId)) {
-            log.error("Попытка удаления несуществующего пользователя ID: {}", userId);
-            throw new NotFoundException("Пользователь не найден");
-        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    log.error("Попытка удаления несуществующего пользователя ID: {}", userId);
+                    return new NotFoundException("Пользователь не найден");
+                });
+
+        // Вещи, бронирования, комментарии и запросы удаляет фоновая очистка; email освобождается сразу
+        LocalDateTime now = LocalDateTime.now();
+        user.setDeletedAt(now);
+        user.setEmail(DELETED_EMAIL_PREFIX + userId + DELETED_EMAIL_DOMAIN);
+        userPurgeRepository.save(UserPurge.requested(userId, now));
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.USER, userId));
+        log.info("Пользователь ID: {} помечен удалённым, данные будут очищены в фоне", userId);
+    }
+
+    @Override
+    public UserDeletionDto getUserDeletion(Long userId) {
+        log.debug("Запрос состояния удаления пользователя ID: {}", userId);
 
-        userRepository.deleteById(userId);
-        log.info("Пользователь ID: {} успешно удален", userId);
+        return userPurgeRepository.findById(userId)
+                .map(UserPurge::toDto)
+                .orElseThrow(() -> {
+                    log.warn("Удаление пользователя ID: {} не запрашивалось", userId);
+                    return new NotFoundException("Удаление пользователя не найдено");
+                });
     }
 
     @Override
@@ -138,6 +184,27 @@ public class UserServiceImpl implements UserService {
         return result;
     }
 
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        log.info("Запрос на получение {} пользователей по списку ID", ids.size());
+
+        List<Long> uniqueIds = ids.stream().distinct().toList();
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            log.warn("Запрошено {} пользователей, допустимо не более {}", uniqueIds.size(), MAX_BATCH_SIZE);
+            throw new BadRequestException("Нельзя запросить более " + MAX_BATCH_SIZE + " пользователей за раз");
+        }
+
+        Map<Long, User> users = userRepository.findAllById(uniqueIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        log.debug("Найдено {} из {} запрошенных пользователей", users.size(), uniqueIds.size());
+
+        return uniqueIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
     private void validateUser(UserDto userDto) {
         log.trace("Валидация данных пользователя");
 
@@ -1,13 +0,0 @@
-package ru.practicum.shareit.user.dto;
-
-import lombok.*;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class UserDto {
-    private Long id;
-    private String email;
-    private String name;
-}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.user.purge;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.user.UserDeletionStatus;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Очистка данных удалённого пользователя. Узел, выполняющий очистку, держит аренду
+ * (claimedBy, claimedAt) и продлевает её с каждой пачкой.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_purges", indexes = @Index(name = "idx_user_purges_pending",
+        columnList = "completed_at, requested_at"))
+public class UserPurge {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "step", nullable = false, length = 32)
+    private UserPurgeStep step;
+
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "claimed_by", length = 36)
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "deleted_bookings", nullable = false)
+    private long deletedBookings;
+
+    @Column(name = "deleted_comments", nullable = false)
+    private long deletedComments;
+
+    @Column(name = "deleted_items", nullable = false)
+    private long deletedItems;
+
+    @Column(name = "deleted_requests", nullable = false)
+    private long deletedRequests;
+
+    public static UserPurge requested(Long userId, LocalDateTime now) {
+        return UserPurge.builder()
+                .userId(userId)
+                .step(UserPurgeStep.values()[0])
+                .requestedAt(now)
+                .build();
+    }
+
+    public UserDeletionDto toDto() {
+        UserDeletionStatus status = completedAt != null ? UserDeletionStatus.COMPLETED
+                : startedAt != null ? UserDeletionStatus.IN_PROGRESS
+                : UserDeletionStatus.PENDING;
+        return UserDeletionDto.builder()
+                .userId(userId)
+                .status(status)
+                .step(step.name())
+                .deletedBookings(deletedBookings)
+                .deletedComments(deletedComments)
+                .deletedItems(deletedItems)
+                .deletedRequests(deletedRequests)
+                .requestedAt(requestedAt)
+                .startedAt(startedAt)
+                .completedAt(completedAt)
+                .build();
+    }
+}
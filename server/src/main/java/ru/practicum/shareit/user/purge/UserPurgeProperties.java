@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user.purge;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.user-purge")
+public class UserPurgeProperties {
+    // Как часто искать новые очистки, когда работы нет
+    private Duration interval = Duration.ofSeconds(10);
+    private int batchSize = 500;
+    // Пауза между пачками, чтобы очистка не вытесняла обычную нагрузку
+    private Duration batchPause = Duration.ofMillis(200);
+    private Duration lease = Duration.ofMinutes(1);
+    private Duration statusRetention = Duration.ofDays(7);
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.user.purge;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.BookingOwnership;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Очистки пользователей и пачечные выборки и удаления связанных с пользователем строк.
+ * Идентификаторы пачки выбираются отдельным запросом с ограничением, а удаляются по списку —
+ * так размер каждой транзакции ограничен независимо от объёма данных пользователя.
+ */
+@Repository
+public interface UserPurgeRepository extends JpaRepository<UserPurge, Long> {
+
+    @Query("SELECT p.userId FROM UserPurge p WHERE p.completedAt IS NULL " +
+           "AND (p.claimedBy IS NULL OR p.claimedBy = :node OR p.claimedAt < :leaseExpiry) " +
+           "ORDER BY p.requestedAt")
+    List<Long> findClaimable(String node, LocalDateTime leaseExpiry, Pageable pageable);
+
+    /**
+     * Захватывает или продлевает аренду очистки. Возвращает 0, если её держит другой узел.
+     */
+    @Modifying
+    @Query("UPDATE UserPurge p SET p.claimedBy = :node, p.claimedAt = :now " +
+           "WHERE p.userId = :userId AND p.completedAt IS NULL " +
+           "AND (p.claimedBy IS NULL OR p.claimedBy = :node OR p.claimedAt < :leaseExpiry)")
+    int claim(Long userId, String node, LocalDateTime now, LocalDateTime leaseExpiry);
+
+    @Modifying
+    @Query("DELETE FROM UserPurge p WHERE p.completedAt < :before")
+    int deleteCompletedBefore(LocalDateTime before);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.item.owner.id = :ownerId")
+    List<Long> findBookingIdsByItemOwnerId(Long ownerId, Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.booker.id = :bookerId")
+    List<Long> findBookingIdsByBookerId(Long bookerId, Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.item.owner.id AS ownerId, b.item.id AS itemId, b.booker.id AS bookerId, " +
+           "b.start AS start, b.end AS end, b.status AS status " +
+           "FROM Booking b WHERE b.id IN :ids")
+    List<BookingOwnership> findOwnershipByIdIn(Collection<Long> ids);
+
+    @Query("SELECT b.id AS id, b.item.owner.id AS ownerId, b.item.id AS itemId, b.booker.id AS bookerId, " +
+           "b.start AS start, b.end AS end, b.status AS status " +
+           "FROM Booking b WHERE b.item.id IN :itemIds")
+    List<BookingOwnership> findOwnershipByItemIdIn(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteBookings(Collection<Long> ids);
+
+    @Query("SELECT c.id FROM Comment c WHERE c.item.owner.id = :ownerId")
+    List<Long> findCommentIdsByItemOwnerId(Long ownerId, Pageable pageable);
+
+    @Query("SELECT c.id FROM Comment c WHERE c.author.id = :authorId")
+    List<Long> findCommentIdsByAuthorId(Long authorId, Pageable pageable);
+
+    @Query("SELECT DISTINCT c.item.id FROM Comment c WHERE c.id IN :ids")
+    List<Long> findItemIdsByCommentIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    int deleteComments(Collection<Long> ids);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findItemIdsByOwnerId(Long ownerId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.item.id IN :itemIds")
+    int deleteCommentsByItemIds(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("DELETE FROM Item i WHERE i.id IN :ids")
+    int deleteItems(Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM ItemView v WHERE v.itemId IN :itemIds")
+    int deleteItemViews(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("DELETE FROM ItemStats s WHERE s.itemId IN :itemIds")
+    int deleteItemStats(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("DELETE FROM ItemRequestMatch m WHERE m.itemId IN :itemIds")
+    int deleteMatchesByItemIds(Collection<Long> itemIds);
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.requester.id = :requesterId")
+    List<Long> findRequestIdsByRequesterId(Long requesterId, Pageable pageable);
+
+    // Вещи других пользователей, созданные в ответ на запрос, остаются без ссылки на него
+    @Modifying
+    @Query("UPDATE Item i SET i.requestId = NULL WHERE i.requestId IN :requestIds")
+    int detachItemsFromRequests(Collection<Long> requestIds);
+
+    @Modifying
+    @Query("DELETE FROM ItemRequestMatch m WHERE m.requestId IN :requestIds")
+    int deleteMatchesByRequestIds(Collection<Long> requestIds);
+
+    @Modifying
+    @Query("DELETE FROM ItemRequest r WHERE r.id IN :ids")
+    int deleteRequests(Collection<Long> ids);
+
+    /**
+     * Остались ли строки, ссылающиеся на пользователя, — например, созданные транзакциями,
+     * начатыми до пометки об удалении.
+     */
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.id = :userId AND (" +
+           "EXISTS (SELECT 1 FROM Item i WHERE i.owner.id = u.id) " +
+           "OR EXISTS (SELECT 1 FROM Booking b WHERE b.booker.id = u.id) " +
+           "OR EXISTS (SELECT 1 FROM Comment c WHERE c.author.id = u.id) " +
+           "OR EXISTS (SELECT 1 FROM ItemRequest r WHERE r.requester.id = u.id))")
+    boolean hasDependents(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :userId")
+    int deleteUser(Long userId);
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user.purge;
+
+/**
+ * Этапы очистки в порядке, допустимом внешними ключами. Вещи пользователя удаляются
+ * первыми, чтобы быстрее пропасть из поиска.
+ */
+public enum UserPurgeStep {
+    ITEM_BOOKINGS,
+    ITEM_COMMENTS,
+    ITEMS,
+    BOOKER_BOOKINGS,
+    AUTHORED_COMMENTS,
+    REQUESTS,
+    USER,
+    DONE;
+
+    public UserPurgeStep next() {
+        return this == DONE ? DONE : values()[ordinal() + 1];
+    }
+}
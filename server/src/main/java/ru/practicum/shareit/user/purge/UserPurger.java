@@ -0,0 +1,230 @@
+package ru.practicum.shareit.user.purge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingOwnership;
+import ru.practicum.shareit.cache.EntityChangedEvent;
+import ru.practicum.shareit.outbox.EventType;
+import ru.practicum.shareit.outbox.Outbox;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Удаляет данные пользователей, помеченных удалёнными. Каждая пачка — отдельная короткая
+ * транзакция не более чем на batch-size строк, между пачками выдерживается batch-pause.
+ * Пока работа есть, следующий запуск планируется через паузу, иначе — через interval.
+ * Очистку одного пользователя ведёт один узел, пока продлевает аренду.
+ */
+@Slf4j
+public class UserPurger {
+    private static final int CANDIDATES = 5;
+
+    private final UserPurgeRepository repository;
+    private final Outbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final UserPurgeProperties properties;
+    private final String node = UUID.randomUUID().toString();
+    private final Counter bookings;
+    private final Counter comments;
+    private final Counter items;
+    private final Counter requests;
+    private volatile boolean busy;
+
+    public UserPurger(UserPurgeRepository repository,
+                      Outbox outbox,
+                      ApplicationEventPublisher eventPublisher,
+                      TransactionTemplate transactionTemplate,
+                      UserPurgeProperties properties,
+                      MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.outbox = outbox;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.bookings = rows(meterRegistry, "bookings");
+        this.comments = rows(meterRegistry, "comments");
+        this.items = rows(meterRegistry, "items");
+        this.requests = rows(meterRegistry, "requests");
+    }
+
+    public void run() {
+        busy = false;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> candidates = repository.findClaimable(node, now.minus(properties.getLease()),
+                    PageRequest.of(0, CANDIDATES));
+            for (Long userId : candidates) {
+                Boolean processed = transactionTemplate.execute(status -> purgeBatch(userId));
+                if (Boolean.TRUE.equals(processed)) {
+                    busy = true;
+                    return;
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                int removed = repository.deleteCompletedBefore(now.minus(properties.getStatusRetention()));
+                if (removed > 0) {
+                    log.debug("Удалено {} записей о завершённых очистках пользователей", removed);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Не удалось очистить данные удалённых пользователей: {}", e.getMessage());
+        }
+    }
+
+    public Instant nextExecution(TriggerContext context) {
+        Instant last = context.lastCompletion();
+        if (last == null) {
+            return Instant.now().plus(properties.getInterval());
+        }
+        return last.plus(busy ? properties.getBatchPause() : properties.getInterval());
+    }
+
+    /**
+     * Удаляет одну пачку строк текущего этапа. Возвращает false, если очистку держит другой узел.
+     */
+    private boolean purgeBatch(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.claim(userId, node, now, now.minus(properties.getLease())) == 0) {
+            return false;
+        }
+        UserPurge purge = repository.findById(userId).orElseThrow();
+        if (purge.getStartedAt() == null) {
+            purge.setStartedAt(now);
+            log.info("Начата очистка данных пользователя ID: {}", userId);
+        }
+
+        Pageable batch = PageRequest.of(0, properties.getBatchSize());
+        int removed = switch (purge.getStep()) {
+            case ITEM_BOOKINGS -> deleteBookings(purge, repository.findBookingIdsByItemOwnerId(userId, batch));
+            case ITEM_COMMENTS -> deleteComments(purge, repository.findCommentIdsByItemOwnerId(userId, batch));
+            case ITEMS -> deleteItems(purge, repository.findItemIdsByOwnerId(userId, batch));
+            case BOOKER_BOOKINGS -> deleteBookings(purge, repository.findBookingIdsByBookerId(userId, batch));
+            case AUTHORED_COMMENTS -> deleteComments(purge, repository.findCommentIdsByAuthorId(userId, batch));
+            case REQUESTS -> deleteRequests(purge, repository.findRequestIdsByRequesterId(userId, batch));
+            case USER -> deleteUser(purge);
+            case DONE -> 0;
+        };
+
+        if (removed < properties.getBatchSize() && purge.getStep() != UserPurgeStep.DONE) {
+            purge.setStep(purge.getStep().next());
+            log.debug("Очистка пользователя ID: {} перешла к этапу {}", userId, purge.getStep());
+        }
+        if (purge.getStep() == UserPurgeStep.DONE) {
+            purge.setCompletedAt(now);
+            purge.setClaimedBy(null);
+            log.info("Очистка данных пользователя ID: {} завершена: бронирований {}, комментариев {}, "
+                            + "вещей {}, запросов {}", userId, purge.getDeletedBookings(),
+                    purge.getDeletedComments(), purge.getDeletedItems(), purge.getDeletedRequests());
+        }
+        return true;
+    }
+
+    // Представления затронутых вещей чужих владельцев удаляются и строятся заново при досборке
+    private int deleteBookings(UserPurge purge, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<BookingOwnership> deleted = repository.findOwnershipByIdIn(ids);
+        repository.deleteItemViews(deleted.stream().map(BookingOwnership::getItemId).distinct().toList());
+        appendBookingEvents(deleted);
+        int removed = repository.deleteBookings(ids);
+        purge.setDeletedBookings(purge.getDeletedBookings() + removed);
+        bookings.increment(removed);
+        return ids.size();
+    }
+
+    private int deleteComments(UserPurge purge, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        repository.deleteItemViews(repository.findItemIdsByCommentIds(ids));
+        int removed = repository.deleteComments(ids);
+        purge.setDeletedComments(purge.getDeletedComments() + removed);
+        comments.increment(removed);
+        return ids.size();
+    }
+
+    private int deleteItems(UserPurge purge, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Бронирования и комментарии, появившиеся после соответствующих этапов
+        List<BookingOwnership> late = repository.findOwnershipByItemIdIn(ids);
+        appendBookingEvents(late);
+        int lateBookings = late.isEmpty() ? 0
+                : repository.deleteBookings(late.stream().map(BookingOwnership::getId).toList());
+        int lateComments = repository.deleteCommentsByItemIds(ids);
+        purge.setDeletedBookings(purge.getDeletedBookings() + lateBookings);
+        purge.setDeletedComments(purge.getDeletedComments() + lateComments);
+        bookings.increment(lateBookings);
+        comments.increment(lateComments);
+        repository.deleteItemViews(ids);
+        repository.deleteItemStats(ids);
+        repository.deleteMatchesByItemIds(ids);
+        // Событие убирает вещь из индексов в памяти на всех узлах
+        ids.forEach(itemId -> outbox.append(EventType.ITEM_DELETED, itemId,
+                Map.of("itemId", itemId, "ownerId", purge.getUserId())));
+        int removed = repository.deleteItems(ids);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.ITEM, ids.get(0)));
+        purge.setDeletedItems(purge.getDeletedItems() + removed);
+        items.increment(removed);
+        return ids.size();
+    }
+
+    /**
+     * События outbox для удаляемых бронирований: по ним статистика вещей и матрица похожих
+     * вещей пересчитываются инкрементально, не дожидаясь полного пересчёта, а вторая сторона
+     * бронирования получает уведомление об удалении.
+     */
+    private void appendBookingEvents(List<BookingOwnership> deleted) {
+        deleted.forEach(booking -> outbox.append(EventType.BOOKING_DELETED, booking.getId(), Map.of(
+                "bookingId", booking.getId(),
+                "itemId", booking.getItemId(),
+                "bookerId", booking.getBookerId(),
+                "ownerId", booking.getOwnerId(),
+                "status", booking.getStatus().name(),
+                "start", booking.getStart().toString(),
+                "end", booking.getEnd().toString())));
+    }
+
+    private int deleteRequests(UserPurge purge, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        repository.detachItemsFromRequests(ids);
+        repository.deleteMatchesByRequestIds(ids);
+        int removed = repository.deleteRequests(ids);
+        purge.setDeletedRequests(purge.getDeletedRequests() + removed);
+        requests.increment(removed);
+        return ids.size();
+    }
+
+    private int deleteUser(UserPurge purge) {
+        if (repository.hasDependents(purge.getUserId())) {
+            log.warn("У пользователя ID: {} появились новые данные, очистка начинается заново", purge.getUserId());
+            purge.setStep(UserPurgeStep.values()[0]);
+            // Полная пачка: этап не должен смениться
+            return properties.getBatchSize();
+        }
+        return repository.deleteUser(purge.getUserId());
+    }
+
+    private static Counter rows(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("shareit.user.purge.rows")
+                .description("Строки, удалённые при очистке данных удалённых пользователей")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking.partition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingPartitionManagerTest {
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbcTemplate;
+    private BookingPartitionProperties properties;
+    private BookingPartitionManager manager;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA public");
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE items (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE bookings (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "start_date TIMESTAMP NOT NULL, end_date TIMESTAMP NOT NULL, "
+                + "item_id BIGINT NOT NULL CONSTRAINT fk_bookings_item REFERENCES items (id), "
+                + "booker_id BIGINT NOT NULL CONSTRAINT fk_bookings_booker REFERENCES users (id), "
+                + "status VARCHAR(16) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO users DEFAULT VALUES");
+        jdbcTemplate.update("INSERT INTO items DEFAULT VALUES");
+
+        properties = new BookingPartitionProperties();
+        properties.setEnabled(true);
+        manager = new BookingPartitionManager(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), properties,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void initializeMigratesPlainTableKeepingRowsAndForeignKeys() {
+        long old = book(currentMonth().minusYears(2));
+        long current = book(currentMonth());
+        long farFuture = book(currentMonth().plusMonths(10));
+
+        manager.initialize();
+
+        assertThat(partitionOf(old)).isEqualTo("bookings_history_base");
+        assertThat(partitionOf(current)).isEqualTo(monthPartition(currentMonth()));
+        assertThat(partitionOf(farFuture)).isEqualTo("bookings_default");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_constraint "
+                + "WHERE conrelid = 'bookings'::regclass AND contype = 'f'", Long.class)).isEqualTo(2);
+        assertThat(children("bookings")).contains("bookings_history", monthPartition(currentMonth().plusMonths(3)));
+        // Новые бронирования продолжают нумерацию из перенесенной таблицы
+        assertThat(book(currentMonth())).isEqualTo(farFuture + 1);
+    }
+
+    @Test
+    void maintainMovesColdMonthsIntoHistoryWithoutCopyingRows() {
+        manager.initialize();
+        LocalDate coldMonth = currentMonth().minusMonths(5);
+        long booking = book(coldMonth);
+
+        properties.setHotMonths(2);
+        manager.maintain();
+
+        assertThat(children("bookings")).doesNotContain(monthPartition(coldMonth))
+                .doesNotContain(monthPartition(currentMonth().minusMonths(3)))
+                .contains(monthPartition(currentMonth().minusMonths(2)));
+        assertThat(children("bookings_history")).contains("bookings_history_base", monthPartition(coldMonth));
+        assertThat(partitionOf(booking)).isEqualTo(monthPartition(coldMonth));
+        assertThat(jdbcTemplate.queryForObject("SELECT pg_get_expr(relpartbound, oid) FROM pg_class "
+                + "WHERE relname = 'bookings_history'", String.class))
+                .contains(currentMonth().minusMonths(2).toString());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE start_date < ?",
+                Long.class, currentMonth().atStartOfDay())).isOne();
+    }
+
+    @Test
+    void maintainMovesMisplacedRowsOutOfDefaultPartition() {
+        manager.initialize();
+        LocalDate month = currentMonth().plusMonths(5);
+        long booking = book(month);
+        assertThat(partitionOf(booking)).isEqualTo("bookings_default");
+
+        properties.setPremakeMonths(6);
+        manager.maintain();
+
+        assertThat(partitionOf(booking)).isEqualTo(monthPartition(month));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings_default", Long.class)).isZero();
+    }
+
+    private long book(LocalDate month) {
+        LocalDateTime start = month.plusDays(3).atTime(12, 0);
+        return jdbcTemplate.queryForObject("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, 1, 1, 'APPROVED') RETURNING id", Long.class, start, start.plusDays(1));
+    }
+
+    private String partitionOf(long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM bookings WHERE id = ?",
+                String.class, bookingId);
+    }
+
+    private List<String> children(String table) {
+        return jdbcTemplate.queryForList("SELECT inhrelid::regclass::text FROM pg_inherits "
+                + "WHERE inhparent = ?::regclass", String.class, table);
+    }
+
+    private static LocalDate currentMonth() {
+        return LocalDate.now().withDayOfMonth(1);
+    }
+
+    private static String monthPartition(LocalDate month) {
+        return "bookings_p" + DateTimeFormatter.ofPattern("yyyyMM").format(month);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class InMemoryCacheInvalidationBusTest {
+    private final ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager(CacheNames.USERS, CacheNames.ITEM_SEARCH);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InMemoryCacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new InMemoryCacheInvalidationBus(new CacheInvalidationHandler(cacheManager, meterRegistry, "node-1"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.close();
+    }
+
+    @Test
+    void userMessageEvictsUserAndClearsSearch() {
+        Cache users = cacheManager.getCache(CacheNames.USERS);
+        Cache search = cacheManager.getCache(CacheNames.ITEM_SEARCH);
+        users.put(1L, "user-1");
+        users.put(2L, "user-2");
+        search.put("дрель", "results");
+
+        bus.publish(new InvalidationMessage(EntityChangedEvent.EntityType.USER, 1L, "node-2", 0));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(users.get(1L)).isNull();
+            assertThat(search.get("дрель")).isNull();
+        });
+        assertThat(users.get(2L)).isNotNull();
+        assertThat(meterRegistry.get("shareit.cache.invalidations")
+                .tag("entity", "user").tag("origin", "remote").counter().count()).isOne();
+    }
+
+    @Test
+    void itemMessageClearsSearchOnly() {
+        Cache users = cacheManager.getCache(CacheNames.USERS);
+        Cache search = cacheManager.getCache(CacheNames.ITEM_SEARCH);
+        users.put(1L, "user-1");
+        search.put("дрель", "results");
+
+        bus.publish(new InvalidationMessage(EntityChangedEvent.EntityType.ITEM, 7L, "node-1", 0));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> search.get("дрель") == null);
+        assertThat(users.get(1L)).isNotNull();
+        assertThat(meterRegistry.get("shareit.cache.invalidations")
+                .tag("entity", "item").tag("origin", "self").counter().count()).isOne();
+    }
+}
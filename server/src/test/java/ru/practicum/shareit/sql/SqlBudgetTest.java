@@ -0,0 +1,38 @@
+package ru.practicum.shareit.sql;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.sql.budget.limits.[/users/{userId}/deletion]=0")
+@AutoConfigureMockMvc
+class SqlBudgetTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void requestWithinBudgetReportsStatementCount() throws Exception {
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"budget\", \"email\": \"budget@example.com\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("X-Sql-Statement-Count"));
+    }
+
+    @Test
+    void requestOverBudgetFailsInFailMode() throws Exception {
+        mockMvc.perform(get("/users/{userId}/deletion", 1))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error", containsString("/users/{userId}/deletion")));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTest {
+
+    @Test
+    void addToInsertsUpdatesAndRemovesZeroedKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        assertThat(map.addTo(7, 3)).isEqualTo(3);
+        assertThat(map.addTo(7, 2)).isEqualTo(5);
+        assertThat(map.get(7)).isEqualTo(5);
+        assertThat(map.size()).isOne();
+
+        assertThat(map.addTo(7, -5)).isZero();
+        assertThat(map.get(7)).isZero();
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    @Test
+    void zeroDeltaForMissingKeyDoesNotInsert() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        assertThat(map.addTo(42, 0)).isZero();
+
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    @Test
+    void growsPastInitialCapacityKeepingAllEntries() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        for (long key = 1; key <= 10_000; key++) {
+            map.addTo(key * 1_000_003, (int) key);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long key = 1; key <= 10_000; key++) {
+            assertThat(map.get(key * 1_000_003)).isEqualTo((int) key);
+        }
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(20240601);
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> oracle = new HashMap<>();
+
+        for (int step = 0; step < 200_000; step++) {
+            // Небольшой диапазон ключей дает длинные цепочки проб и частые удаления посреди них
+            long key = 1 + random.nextInt(512);
+            int delta = random.nextInt(7) - 3;
+
+            int expected = oracle.getOrDefault(key, 0) + delta;
+            if (expected == 0) {
+                oracle.remove(key);
+            } else {
+                oracle.put(key, expected);
+            }
+
+            assertThat(map.addTo(key, delta)).isEqualTo(expected);
+            if (step % 1_000 == 0) {
+                assertSameContents(map, oracle);
+            }
+        }
+        assertSameContents(map, oracle);
+    }
+
+    private static void assertSameContents(LongIntHashMap map, Map<Long, Integer> oracle) {
+        Map<Long, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertThat(actual).isEqualTo(oracle);
+        assertThat(map.size()).isEqualTo(oracle.size());
+        oracle.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+    }
+}